@@ -0,0 +1,54 @@
+package com.codecool.core;
+
+import com.codecool.core.render.HeadlessSink;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link App#getAppObjectsByTagName(String)}
+ * in an app where the objects share ten tag names.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AppBenchmark {
+
+    private static final int TAG_NAMES = 10;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int objects;
+
+    private App app;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        app = new App(100, 100, false, 5, 10, 10, new HeadlessSink());
+        for (int i = 0; i < objects; i++) {
+            app.addAppObject(new TaggedObject(i % 100, i / 100 % 100, "tag" + i % TAG_NAMES));
+        }
+
+        Method update = App.class.getDeclaredMethod("update");
+        update.setAccessible(true);
+        update.invoke(app);
+    }
+
+    @Benchmark
+    public List<AppObject> getAppObjectsByTagName() {
+        return app.getAppObjectsByTagName("tag3");
+    }
+
+    private static class TaggedObject extends AppObject {
+
+        TaggedObject(int xPos, int yPos, String tagName) {
+            super(xPos, yPos, new char[][]{{'x'}}, null);
+            setTagName(tagName);
+        }
+    }
+}
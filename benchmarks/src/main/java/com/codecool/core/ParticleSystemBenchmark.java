@@ -0,0 +1,55 @@
+package com.codecool.core;
+
+import com.codecool.core.render.Canvas;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ParticleSystem#update()} and {@link ParticleSystem#render(Canvas)}
+ * of many particles on a large screen.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParticleSystemBenchmark {
+
+    private static final int WIDTH = 200;
+
+    private static final int HEIGHT = 60;
+
+    @Param({"1000", "100000", "1000000"})
+    public int particles;
+
+    private ParticleSystem particleSystem;
+
+    private Canvas canvas = new Canvas(WIDTH, HEIGHT);
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        particleSystem = new ParticleSystem(particles, null);
+        for (int i = 0; i < particles; i++) {
+            particleSystem.emit(random.nextFloat() * WIDTH, random.nextFloat() * HEIGHT,
+                    random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, Integer.MAX_VALUE, '*');
+        }
+    }
+
+    @Benchmark
+    public void update(Blackhole blackhole) {
+        particleSystem.update();
+        blackhole.consume(particleSystem.getRenderWidth());
+    }
+
+    @Benchmark
+    public void render(Blackhole blackhole) {
+        particleSystem.render(canvas);
+        blackhole.consume(canvas);
+    }
+}
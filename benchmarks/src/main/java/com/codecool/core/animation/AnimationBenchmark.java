@@ -0,0 +1,58 @@
+package com.codecool.core.animation;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Animation#update()} of many looping animations.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AnimationBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int animations;
+
+    private List<Animation> looping = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < animations; i++) {
+            looping.add(new Explosion());
+        }
+    }
+
+    @Benchmark
+    public void update(Blackhole blackhole) {
+        for (int i = 0; i < looping.size(); i++) {
+            looping.get(i).update();
+        }
+        blackhole.consume(looping);
+    }
+
+    private static class Explosion extends Animation {
+
+        Explosion() {
+            super(0, 0, null, true);
+        }
+
+        @Override
+        public void defineFrames() {
+            this.frames = new char[][][]{
+                    {{' ', '.', ' '}, {'.', 'o', '.'}, {' ', '.', ' '}},
+                    {{'.', 'o', '.'}, {'o', 'O', 'o'}, {'.', 'o', '.'}},
+                    {{'o', 'O', 'o'}, {'O', '@', 'O'}, {'o', 'O', 'o'}},
+                    {{' ', ' ', ' '}, {' ', '*', ' '}, {' ', ' ', ' '}}
+            };
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.codecool.core.buffer;
+
+import com.codecool.core.AppObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Buffer#process()} when a tenth of the target
+ * is removed and the same number of objects is added in every round.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BufferBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int objects;
+
+    private List<AppObject> target;
+
+    private Buffer<AppObject> buffer;
+
+    private List<AppObject> removing;
+
+    private List<AppObject> adding;
+
+    @Setup
+    public void setup() {
+        buffer = new Buffer<>();
+        for (int i = 0; i < objects; i++) {
+            buffer.applyForAddition(newAppObject());
+        }
+        buffer.process();
+        target = buffer.getTarget();
+
+        int changes = Math.max(1, objects / 10);
+        removing = new ArrayList<>(changes);
+        adding = new ArrayList<>(changes);
+        for (int i = 0; i < changes; i++) {
+            adding.add(newAppObject());
+        }
+    }
+
+    @Benchmark
+    public void processMixedChanges() {
+        removing.clear();
+        for (int i = 0; i < adding.size(); i++) {
+            removing.add(target.get(i * 10 % target.size()));
+        }
+
+        buffer.applyForRemoval(removing);
+        buffer.applyForAddition(adding);
+        buffer.process();
+
+        List<AppObject> removed = removing;
+        removing = adding;
+        adding = removed;
+    }
+
+    private static AppObject newAppObject() {
+        return new AppObject(0, 0, new char[][]{{'x'}}, null) {
+        };
+    }
+}
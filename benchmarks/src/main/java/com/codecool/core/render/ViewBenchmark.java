@@ -0,0 +1,91 @@
+package com.codecool.core.render;
+
+import com.codecool.core.AppObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the private drawing methods of View, which are called through method handles.
+ * The canvas is as close to square as possible with the given number of cells.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ViewBenchmark {
+
+    private static final MethodHandle DRAW_ON_CANVAS = findMethod("drawOnCanvas", List.class);
+
+    private static final MethodHandle GET_CANVAS_CONTENT = findMethod("getCanvasContent");
+
+    private static final MethodHandle CLEAR_CANVAS = findMethod("clearCanvas");
+
+    @State(Scope.Thread)
+    public static class CanvasState {
+
+        @Param({"10", "1000", "100000", "1000000"})
+        public int cells;
+
+        View<AppObject> view;
+
+        @Setup
+        public void setup() {
+            int width = Math.max(1, (int) Math.sqrt(cells));
+            view = new View<>(cells / width, width, new ArrayList<>(), new ArrayList<>(), 0, new HeadlessSink());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SceneState extends CanvasState {
+
+        @Param({"10", "1000", "100000", "1000000"})
+        public int objects;
+
+        List<AppObject> appObjects = new ArrayList<>();
+
+        @Setup
+        public void setupObjects() {
+            Random random = new Random(42);
+            char[][] symbols = {{'/', '^', '\\'}, {'|', 'o', '|'}};
+            for (int i = 0; i < objects; i++) {
+                appObjects.add(new AppObject(random.nextInt(view.getWidth()), random.nextInt(view.getHeight()),
+                        symbols, null) {
+                });
+            }
+        }
+    }
+
+    @Benchmark
+    public void drawOnCanvas(SceneState state) throws Throwable {
+        DRAW_ON_CANVAS.invoke(state.view, state.appObjects);
+    }
+
+    @Benchmark
+    public Object getCanvasContent(CanvasState state) throws Throwable {
+        return GET_CANVAS_CONTENT.invoke(state.view);
+    }
+
+    @Benchmark
+    public void clearCanvas(CanvasState state) throws Throwable {
+        CLEAR_CANVAS.invoke(state.view);
+    }
+
+    private static MethodHandle findMethod(String name, Class<?>... parameterTypes) {
+        try {
+            Method method = View.class.getDeclaredMethod(name, parameterTypes);
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package com.codecool.core;
 
 import com.codecool.core.buffer.Buffer;
+import com.codecool.core.render.Layer;
+import com.codecool.core.render.RenderMode;
+import com.codecool.core.render.RenderSink;
+import com.codecool.core.render.TerminalSink;
 import com.codecool.core.render.View;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Implements an app functionality,
@@ -14,7 +21,8 @@ import java.util.stream.Collectors;
  * <br>
  * It's sets the terminal to raw mode
  * to read input flawlessly, hides the cursor
- * and refreshes the screen in every frame.
+ * and refreshes the screen in every frame,
+ * printing only the characters which changed since the previous frame.
  * <br>
  * More over it provides {@link #getInput()}
  * <br>
@@ -34,35 +42,124 @@ import java.util.stream.Collectors;
  */
 public class App {
 
+    /**
+     * The number of updates in a second if it's not given.
+     */
+    private static final int DEFAULT_TICKS_PER_SECOND = 10;
+
+    /**
+     * The number of renders in a second if it's not given.
+     */
+    private static final int DEFAULT_FRAMES_PER_SECOND = 10;
+
+    /**
+     * The width and height of a cell of {@link #spatialGrid}.
+     */
+    private static final int SPATIAL_GRID_CELL_SIZE = 8;
+
     /**
      * Represents the view of the app where objects are rendered.
      */
     private View<AppObject> view;
 
+    /**
+     * Determines when the app is updated and rendered.
+     */
+    private FrameScheduler scheduler;
+
     /**
      * Provides input reading from terminal.
      */
     private Input input = new Input();
 
     /**
-     * These are the animations inside the app.
+     * Where the key events are captured from,
+     * {@link #input} unless a simulation is running.
+     */
+    private KeySource keySource = input;
+
+    /**
+     * The keys pressed since the previous update,
+     * captured from {@link #input} once at the start of every update.
      */
-    private List<AppObject> animations = new ArrayList<>();
+    private InputSnapshot inputSnapshot = new InputSnapshot();
 
     /**
-     * These are the app objects inside the app.
+     * Calls the key handlers of the keys in {@link #inputSnapshot}.
      */
-    private List<AppObject> appObjects = new ArrayList<>();
+    private KeyDispatcher keyDispatcher = new KeyDispatcher();
 
     /**
      * Provides a buffer for app to hold animations.
      */
-    private Buffer<AppObject> animationBuffer = new Buffer<>(animations);
+    private Buffer<AppObject> animationBuffer = new Buffer<>();
 
     /**
      * Provides a buffer for app to hold app objects.
      */
-    private Buffer<AppObject> appObjectsBuffer = new Buffer<>(appObjects);
+    private Buffer<AppObject> appObjectsBuffer = new Buffer<>();
+
+    /**
+     * These are the animations inside the app, the target of {@link #animationBuffer}.
+     */
+    private List<AppObject> animations = animationBuffer.getTarget();
+
+    /**
+     * These are the app objects inside the app, the target of {@link #appObjectsBuffer}.
+     */
+    private List<AppObject> appObjects = appObjectsBuffer.getTarget();
+
+    /**
+     * Indexes {@link #appObjects} by tag name and by class.
+     */
+    private AppObjectIndex appObjectIndex = new AppObjectIndex();
+
+    /**
+     * Indexes {@link #appObjects} by position.
+     */
+    private SpatialGrid spatialGrid;
+
+    /**
+     * Calls the lifecycle methods of the added and removed objects.
+     */
+    private LifecycleNotifier lifecycleNotifier = new LifecycleNotifier();
+
+    /**
+     * Puts the removed objects back to their pools.
+     */
+    private PoolRecycler poolRecycler = new PoolRecycler();
+
+    /**
+     * If it's true the app objects which are {@link AppObject#isParallelSafe()}
+     * are updated in parallel.
+     */
+    private boolean isParallelUpdate;
+
+    /**
+     * Runs the parallel updates.
+     */
+    private ForkJoinPool updatePool = ForkJoinPool.commonPool();
+
+    /**
+     * True while the parallel-safe app objects are updated,
+     * then {@link #getInput()} can't be called.
+     */
+    private volatile boolean isUpdatingInParallel;
+
+    /**
+     * Reused to collect the app objects which are updated in parallel.
+     */
+    private List<AppObject> parallelAppObjects = new ArrayList<>();
+
+    /**
+     * The timing and the counters of the main loop.
+     */
+    private FrameMetrics metrics = new FrameMetrics();
+
+    /**
+     * Shows {@link #metrics} on the screen, null if it's turned off.
+     */
+    private MetricsOverlay metricsOverlay;
 
     /**
      * If it's true you can stop the app at any keystroke.
@@ -111,46 +208,235 @@ public class App {
      * @param stopDelay    how many frames are rendered after {@link #stop()} called.
      */
     public App(int screenWidth, int screenHeight, boolean isDebug, int stopDelay) {
-        this.view = new View<>(screenHeight, screenWidth, this.appObjects, this.animations, 100);
+        this(screenWidth, screenHeight, isDebug, stopDelay, DEFAULT_TICKS_PER_SECOND, DEFAULT_FRAMES_PER_SECOND);
+    }
+
+    /**
+     * Constructs an App with the specified params.
+     *
+     * @param screenWidth     the width of the screen.
+     * @param screenHeight    the height of the screen.
+     * @param isDebug         if it's true you can exit with any key stroke.
+     * @param stopDelay       how many frames are rendered after {@link #stop()} called.
+     * @param ticksPerSecond  how many times the app objects are updated in a second.
+     * @param framesPerSecond how many times the screen is rendered in a second.
+     */
+    public App(int screenWidth, int screenHeight, boolean isDebug, int stopDelay,
+               int ticksPerSecond, int framesPerSecond) {
+        this(screenWidth, screenHeight, isDebug, stopDelay, ticksPerSecond, framesPerSecond,
+                new TerminalSink(RenderMode.DIFF));
+    }
+
+    /**
+     * Constructs an App with the specified params.
+     * <p>
+     * Use a {@link com.codecool.core.render.HeadlessSink} to run the app without a terminal.
+     *
+     * @param screenWidth     the width of the screen.
+     * @param screenHeight    the height of the screen.
+     * @param isDebug         if it's true you can exit with any key stroke.
+     * @param stopDelay       how many frames are rendered after {@link #stop()} called.
+     * @param ticksPerSecond  how many times the app objects are updated in a second.
+     * @param framesPerSecond how many times the screen is rendered in a second.
+     * @param renderSink      where the rendered frames are put.
+     */
+    public App(int screenWidth, int screenHeight, boolean isDebug, int stopDelay,
+               int ticksPerSecond, int framesPerSecond, RenderSink renderSink) {
+        this.view = new View<>(screenHeight, screenWidth, this.appObjects, this.animations, 0, renderSink);
+        this.scheduler = new FrameScheduler(ticksPerSecond, framesPerSecond);
+        this.spatialGrid = new SpatialGrid(screenWidth, screenHeight, SPATIAL_GRID_CELL_SIZE);
+        this.view.setRegionIndex(spatialGrid);
+        this.appObjectsBuffer.addListener(appObjectIndex);
+        this.appObjectsBuffer.addListener(spatialGrid);
+        this.appObjectsBuffer.addListener(lifecycleNotifier);
+        this.animationBuffer.addListener(lifecycleNotifier);
+        this.appObjectsBuffer.addListener(poolRecycler);
+        this.animationBuffer.addListener(poolRecycler);
         this.isDebug = isDebug;
         this.stopDelay = stopDelay;
     }
 
     /**
      * Starts the main loop of the app.
+     * <p>
+     * Updates run at a fixed tick rate and renders at their own rate.
+     * When the app falls behind it catches up on the updates
+     * and skips the renders.
+     * <p>
+     * If an exception stops the loop, the terminal is reset before it's thrown.
      */
     public void start() {
-        while (isAppRunning) {
-            if (isAppStopping) {
-                framesSinceIsStopping++;
-            }
-            if (framesSinceIsStopping >= stopDelay) {
-                isAppRunning = false;
-                view.stop();
-            }
+        input.start();
+        scheduler.start(System.nanoTime());
+        try {
+            while (isAppRunning) {
+                long loopStart = System.nanoTime();
+                int dueTicks = scheduler.getDueTicks(loopStart);
+                for (int i = 0; i < dueTicks && isAppRunning; i++) {
+                    tick();
+                }
 
-            update();
-            view.render();
+                if (isAppRunning && scheduler.isFrameDue(System.nanoTime())) {
+                    render();
+                }
+                metrics.setDroppedFrameCount(scheduler.getDroppedFrames());
 
-            if (isDebug) {
-                Character userInput = input.tryToRead();
-                if (userInput != null) {
-                    isAppRunning = false;
-                    view.stop();
+                if (isDebug) {
+                    if (!inputSnapshot.getEvents().isEmpty()) {
+                        shutDown();
+                    }
+                }
+
+                long sleepStart = System.nanoTime();
+                metrics.recordLoop(sleepStart - loopStart);
+                if (isAppRunning) {
+                    scheduler.sleepUntilNextEvent();
+                    metrics.recordPhase(FramePhase.SLEEP, System.nanoTime() - sleepStart);
                 }
             }
+        } catch (RuntimeException | Error e) {
+            shutDown();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the app for a fixed number of frames as fast as possible, without
+     * the terminal input, e.g. to load-test it or to compare two builds.
+     * <p>
+     * Every frame is one update and one render, the keys are taken from the script,
+     * so the app ends up in the same state on every run, as long as
+     * the app objects don't depend on the clock or on random numbers.
+     * Construct the app with a {@link com.codecool.core.render.HeadlessSink}
+     * to run it without a terminal. The app is stopped at the end.
+     *
+     * @param frameCount  the number of frames to run.
+     * @param inputScript the keys pressed in the frames.
+     * @return the time of the run and of its frames.
+     */
+    public SimulationReport simulate(int frameCount, InputScript inputScript) {
+        LatencyHistogram frameTimes = new LatencyHistogram();
+        int framesRun = 0;
+        keySource = inputScript;
+        long simulationStart = System.nanoTime();
+        try {
+            while (isAppRunning && framesRun < frameCount) {
+                long frameStart = System.nanoTime();
+                tick();
+                if (!isAppRunning) {
+                    break;
+                }
+                render();
+
+                long frameTime = System.nanoTime() - frameStart;
+                metrics.recordLoop(frameTime);
+                frameTimes.record(frameTime);
+                framesRun++;
+            }
+            if (isAppRunning) {
+                shutDown();
+            }
+        } catch (RuntimeException | Error e) {
+            shutDown();
+            throw e;
+        } finally {
+            keySource = input;
+        }
+        return new SimulationReport(framesRun, System.nanoTime() - simulationStart, frameTimes);
+    }
+
+    /**
+     * Stops the main loop, the input reader and the view,
+     * the terminal is reset back to the state it was in before the app.
+     */
+    private void shutDown() {
+        isAppRunning = false;
+        input.stop();
+        view.stop();
+    }
+
+    /**
+     * Renders the view and records its timing.
+     */
+    private void render() {
+        view.render();
+        metrics.recordPhase(FramePhase.COMPOSE, view.getLastComposeTime());
+        metrics.recordPhase(FramePhase.WRITE, view.getLastWriteTime());
+        metrics.recordFrame();
+        metrics.setBytesWritten(view.getBytesWritten());
+    }
+
+    /**
+     * Counts the ticks after {@link #stop()} was called
+     * and stops the app at {@link #stopDelay},
+     * otherwise it updates the app.
+     */
+    private void tick() {
+        if (isAppStopping) {
+            framesSinceIsStopping++;
         }
+        if (framesSinceIsStopping >= stopDelay) {
+            shutDown();
+            return;
+        }
+
+        update();
     }
 
     /**
-     * Updates {@link #appObjects} and {@link #animations}
+     * Captures the input, calls the key handlers then
+     * updates {@link #appObjects} and {@link #animations}
      */
     private void update() {
+        long inputStart = System.nanoTime();
+        inputSnapshot.capture(keySource);
+
+        long bufferStart = System.nanoTime();
+        metrics.recordPhase(FramePhase.INPUT, bufferStart - inputStart);
         appObjectsBuffer.process();
         animationBuffer.process();
 
-        appObjects.forEach(AppObject::update);
+        long updateStart = System.nanoTime();
+        metrics.recordPhase(FramePhase.BUFFER, updateStart - bufferStart);
+        keyDispatcher.dispatch(inputSnapshot.getEvents());
+
+        if (isParallelUpdate) {
+            updateInParallel();
+        } else {
+            appObjects.forEach(AppObject::update);
+        }
         animations.forEach(AppObject::update);
+
+        spatialGrid.refresh();
+        metrics.recordPhase(FramePhase.UPDATE, System.nanoTime() - updateStart);
+        metrics.recordTick(appObjects.size() + animations.size());
+    }
+
+    /**
+     * Updates the app objects which are {@link AppObject#isParallelSafe()}
+     * on {@link #updatePool}, then the rest of them one by one in their order.
+     */
+    private void updateInParallel() {
+        for (int i = 0; i < appObjects.size(); i++) {
+            if (appObjects.get(i).isParallelSafe()) {
+                parallelAppObjects.add(appObjects.get(i));
+            }
+        }
+        if (!parallelAppObjects.isEmpty()) {
+            isUpdatingInParallel = true;
+            try {
+                updatePool.invoke(new ParallelUpdate(parallelAppObjects, 0, parallelAppObjects.size()));
+            } finally {
+                isUpdatingInParallel = false;
+                parallelAppObjects.clear();
+            }
+        }
+
+        for (int i = 0; i < appObjects.size(); i++) {
+            if (!appObjects.get(i).isParallelSafe()) {
+                appObjects.get(i).update();
+            }
+        }
     }
 
     /**
@@ -233,14 +519,241 @@ public class App {
     }
 
     /**
-     * @return Pressed key.
+     * Creates a pool for the objects of a class, e.g. for bullets or explosions.
+     * From then on every object of exactly that class removed from the app,
+     * as an app object or as an animation, is reset by {@link AppObject#onReset()}
+     * and kept to be returned by {@link AppObjectPool#obtain()}.
+     * <p>
+     * The objects returned have to be added to the app as usual,
+     * and must not be used after they were removed.
+     *
+     * @param type    the class of the objects.
+     * @param factory creates a new object of the class when the pool is empty.
+     * @param <T>     the type of the objects.
+     * @return the pool of the class.
+     */
+    public <T extends AppObject> AppObjectPool<T> addPool(Class<T> type, Supplier<T> factory) {
+        return addPool(type, factory, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a pool for the objects of a class, which keeps at most the given number of them.
+     *
+     * @param type    the class of the objects.
+     * @param factory creates a new object of the class when the pool is empty.
+     * @param maxSize the most objects kept in the pool.
+     * @param <T>     the type of the objects.
+     * @return the pool of the class.
+     */
+    public <T extends AppObject> AppObjectPool<T> addPool(Class<T> type, Supplier<T> factory, int maxSize) {
+        AppObjectPool<T> pool = new AppObjectPool<>(factory, maxSize);
+        poolRecycler.addPool(type, pool);
+        return pool;
+    }
+
+    /**
+     * @param type the class of the objects.
+     * @param <T>  the type of the objects.
+     * @return the pool of the class, null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends AppObject> AppObjectPool<T> getPool(Class<T> type) {
+        return (AppObjectPool<T>) poolRecycler.getPool(type);
+    }
+
+    /**
+     * Stops pooling the objects of a class, the ones removed from then on are left to the garbage collector.
+     *
+     * @param type the class of the objects.
+     */
+    public void removePool(Class<? extends AppObject> type) {
+        poolRecycler.removePool(type);
+    }
+
+    /**
+     * Every call during an update returns the next key pressed since the previous update,
+     * so it can be read in a loop until it returns null.
+     * Use {@link #getInputSnapshot()} to see every key pressed from every app object.
+     * <p>
+     * The keys are taken in the order the app objects are updated, so it can't be called
+     * from the objects updated in parallel, they read {@link #getInputSnapshot()}.
+     *
+     * @return Pressed key, or null if every key was read.
+     * @throws IllegalStateException if it's called during the parallel update.
      */
     public Character getInput() {
-        return input.tryToRead();
+        if (isUpdatingInParallel) {
+            throw new IllegalStateException("getInput() can't be called in a parallel update, use getInputSnapshot()");
+        }
+        return inputSnapshot.readCharacter();
+    }
+
+    /**
+     * The snapshot is captured once before the update,
+     * so every app object sees the same keys no matter which thread it runs on.
+     *
+     * @return the keys pressed since the previous update.
+     */
+    public InputSnapshot getInputSnapshot() {
+        return inputSnapshot;
+    }
+
+    /**
+     * Every key read since the previous update, including the ones
+     * without a character, like the arrows and the function keys.
+     *
+     * @return the key events of the current update in the order they were read.
+     */
+    public List<KeyEvent> getKeyEvents() {
+        return inputSnapshot.getEvents();
     }
 
+    /**
+     * The handler is called before the app objects are updated,
+     * every time the key is pressed.
+     *
+     * @param key     the handler is called for
+     * @param handler that will be added
+     */
+    public void addKeyHandler(Key key, KeyHandler handler) {
+        keyDispatcher.addHandler(key, handler);
+    }
+
+    /**
+     * The handler is called before the app objects are updated,
+     * every time a key with the character is pressed.
+     *
+     * @param character the handler is called for
+     * @param handler   that will be added
+     */
+    public void addKeyHandler(char character, KeyHandler handler) {
+        keyDispatcher.addHandler(character, handler);
+    }
+
+    /**
+     * @param key     the handler was added for
+     * @param handler that will be removed
+     */
+    public void removeKeyHandler(Key key, KeyHandler handler) {
+        keyDispatcher.removeHandler(key, handler);
+    }
+
+    /**
+     * @param character the handler was added for
+     * @param handler   that will be removed
+     */
+    public void removeKeyHandler(char character, KeyHandler handler) {
+        keyDispatcher.removeHandler(character, handler);
+    }
+
+    /**
+     * Turns on or off updating the app objects which are
+     * {@link AppObject#isParallelSafe()} in parallel, on the common ForkJoinPool.
+     *
+     * @param isParallelUpdate true to update in parallel.
+     */
+    public void setParallelUpdate(boolean isParallelUpdate) {
+        this.isParallelUpdate = isParallelUpdate;
+    }
+
+    /**
+     * The metrics are recorded all the time, reading them doesn't stop the app.
+     *
+     * @return the timing of the phases and the counters of the main loop.
+     */
+    public FrameMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Turns on or off showing the metrics in the top row of the screen.
+     * The overlay is an app object, the ones added after it are drawn over it.
+     *
+     * @param isMetricsOverlay true to show the metrics.
+     */
+    public void setMetricsOverlay(boolean isMetricsOverlay) {
+        if (isMetricsOverlay && metricsOverlay == null) {
+            metricsOverlay = new MetricsOverlay(this, metrics);
+            addAppObject(metricsOverlay);
+        } else if (!isMetricsOverlay && metricsOverlay != null) {
+            removeAppObject(metricsOverlay);
+            metricsOverlay = null;
+        }
+    }
+
+    /**
+     * Starts recording the frames into a file, e.g. to profile a session or
+     * to attach it to a bug report. It can be played back by FramePlayer.
+     *
+     * @param path of the file, it is overwritten.
+     * @throws IOException if the file can't be opened.
+     */
+    public void startRecording(String path) throws IOException {
+        view.startRecording(path);
+    }
+
+    /**
+     * Stops recording the frames, it's also stopped when the app stops.
+     */
+    public void stopRecording() {
+        view.stopRecording();
+    }
+
+    /**
+     * Adds a layer of objects which are drawn below the app objects if its depth
+     * is negative, otherwise above them. The objects of a layer are not updated,
+     * a static layer is drawn once, e.g. for walls, borders and maps.
+     *
+     * @param layer that will be drawn in every frame.
+     */
+    public void addLayer(Layer<AppObject> layer) {
+        view.addLayer(layer);
+    }
+
+    /**
+     * @param layer that won't be drawn anymore.
+     */
+    public void removeLayer(Layer<AppObject> layer) {
+        view.removeLayer(layer);
+    }
+
+    /**
+     * Turns on or off writing the frames to the terminal on a dedicated thread,
+     * so the next update runs while the last frame is being written.
+     *
+     * @param isPipelinedRender true to write the frames on their own thread.
+     */
+    public void setPipelinedRender(boolean isPipelinedRender) {
+        view.setPipelined(isPipelinedRender);
+    }
+
+    /**
+     * Turns on or off repainting only the regions of the screen where objects
+     * have moved or changed, it's off by default.
+     * <p>
+     * When it's on, an object is repainted only if it moved or its render symbols
+     * were replaced, the ones which change the characters of their render symbols
+     * in place have to call {@link AppObject#markDirty()}.
+     *
+     * @param isDirtyTracking true to repaint only the changed regions.
+     */
+    public void setDirtyTracking(boolean isDirtyTracking) {
+        view.setDirtyTracking(isDirtyTracking);
+    }
+
+    /**
+     * @param updatePool the pool which runs the parallel updates.
+     */
+    public void setUpdatePool(ForkJoinPool updatePool) {
+        this.updatePool = updatePool;
+    }
+
+    /**
+     * @param input where the keys are read from, instead of the terminal.
+     */
     public void setInput(Input input) {
         this.input = input;
+        this.keySource = input;
     }
 
     /**
@@ -258,13 +771,75 @@ public class App {
     }
 
     /**
+     * The result is a read-only view, which follows
+     * the app objects added and removed later on.
+     *
      * @param tagName the name of the objects
      * @return app objects by tag name.
      */
     public List<AppObject> getAppObjectsByTagName(String tagName) {
-        return appObjects.stream()
-                .filter(x -> x.getTagName().equals(tagName))
-                .collect(Collectors.toList());
+        return appObjectIndex.getByTagName(tagName);
+    }
+
+    /**
+     * The result is a read-only view, which follows
+     * the app objects added and removed later on.
+     *
+     * @param type the concrete class of the objects, subclasses are not included
+     * @param <T>  the type of the objects
+     * @return app objects by class.
+     */
+    public <T extends AppObject> List<T> getAppObjectsByType(Class<T> type) {
+        return appObjectIndex.getByClass(type);
+    }
+
+    /**
+     * The positions are indexed after every app object was updated,
+     * so during an update the objects are found where they were
+     * at the start of it, even the ones which have moved since.
+     *
+     * @param xPos   x coordinate of the upper left corner of the region.
+     * @param yPos   y coordinate of the upper left corner of the region.
+     * @param width  the width of the region.
+     * @param height the height of the region.
+     * @return app objects overlapping the region, in the order they were added.
+     */
+    public List<AppObject> getAppObjectsInRegion(int xPos, int yPos, int width, int height) {
+        return spatialGrid.queryRegion(xPos, yPos, width, height);
+    }
+
+    /**
+     * During an update it sees the positions at the start of it,
+     * like {@link #getAppObjectsInRegion(int, int, int, int)}.
+     *
+     * @param xPos x coordinate of the position.
+     * @param yPos y coordinate of the position.
+     * @return app objects covering the position, in the order they were added.
+     */
+    public List<AppObject> getAppObjectsAt(int xPos, int yPos) {
+        return spatialGrid.objectsAt(xPos, yPos);
+    }
+
+    /**
+     * During an update it sees the positions at the start of it,
+     * like {@link #getAppObjectsInRegion(int, int, int, int)}.
+     *
+     * @param xPos   x coordinate of the position.
+     * @param yPos   y coordinate of the position.
+     * @param filter which app objects can be found, e.g. by tag name.
+     * @return the app object closest to the position, or null if there isn't any.
+     */
+    public AppObject getNearestAppObject(int xPos, int yPos, Predicate<AppObject> filter) {
+        return spatialGrid.findNearest(xPos, yPos, filter);
+    }
+
+    /**
+     * Lets the index know about a changed tag name.
+     *
+     * @param appObject which tag name was changed
+     */
+    void onTagNameChanged(AppObject appObject) {
+        appObjectIndex.onTagNameChanged(appObject);
     }
 
     public void setView(View<AppObject> view) {
@@ -281,9 +856,15 @@ public class App {
 
     public void setAnimationBuffer(Buffer<AppObject> animationBuffer) {
         this.animationBuffer = animationBuffer;
+        this.animationBuffer.addListener(lifecycleNotifier);
+        this.animationBuffer.addListener(poolRecycler);
     }
 
     public void setAppObjectsBuffer(Buffer<AppObject> appObjectsBuffer) {
         this.appObjectsBuffer = appObjectsBuffer;
+        this.appObjectsBuffer.addListener(appObjectIndex);
+        this.appObjectsBuffer.addListener(spatialGrid);
+        this.appObjectsBuffer.addListener(lifecycleNotifier);
+        this.appObjectsBuffer.addListener(poolRecycler);
     }
 }
\ No newline at end of file
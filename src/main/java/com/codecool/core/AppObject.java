@@ -2,8 +2,9 @@ package com.codecool.core;
 
 import com.codecool.core.buffer.BufferTag;
 import com.codecool.core.buffer.Bufferable;
+import com.codecool.core.render.Canvas;
+import com.codecool.core.render.DirtyTrackable;
 import com.codecool.core.render.RenderData;
-import com.codecool.core.render.Renderable;
 
 /**
  * It's represents an object in the app,
@@ -15,7 +16,22 @@ import com.codecool.core.render.Renderable;
  * behavior.
  */
 
-public abstract class AppObject implements Bufferable, Renderable {
+public abstract class AppObject implements Bufferable, DirtyTrackable {
+
+    /**
+     * Tells for every subclass whether it overrides {@link #getRenderData()},
+     * in that case {@link #render(Canvas)} has to use it.
+     */
+    private static final ClassValue<Boolean> OVERRIDES_GET_RENDER_DATA = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("getRenderData").getDeclaringClass() != AppObject.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
 
     /**
      * Determines the x position of the object.
@@ -32,6 +48,31 @@ public abstract class AppObject implements Bufferable, Renderable {
      */
     protected char[][] renderSymbols;
 
+    /**
+     * The objects with a higher z-index are drawn over this one.
+     */
+    private int zIndex;
+
+    /**
+     * Changes whenever {@link #renderSymbols} is replaced or {@link #markDirty()} is called.
+     */
+    private long renderVersion;
+
+    /**
+     * The {@link #renderSymbols} {@link #renderVersion} and {@link #renderWidth} belong to.
+     */
+    private char[][] versionedRenderSymbols;
+
+    /**
+     * The length of the longest row of {@link #renderSymbols}.
+     */
+    private int renderWidth;
+
+    /**
+     * False after {@link #markDirty()}, until {@link #renderVersion} is stepped.
+     */
+    private boolean isRenderVersionValid;
+
     /**
      * A reference of the application host
      */
@@ -42,8 +83,23 @@ public abstract class AppObject implements Bufferable, Renderable {
      * from the host by the
      * App.getAppObject(s)ByTagName()
      * It is not forced to be uniq.
+     * <p>
+     * It can be changed only by {@link #setTagName(String)},
+     * so the app can find the object by the new one
+     * even after it was added to the app.
+     */
+    private String tagName = "defaultTagName";
+
+    /**
+     * The tag name the object is indexed by in the host app,
+     * null if it's not in the app.
+     */
+    String indexedTagName;
+
+    /**
+     * True while the object waits in an {@link AppObjectPool} to be reused.
      */
-    protected String tagName = "defaultTagName";
+    boolean isPooled;
 
     /**
      * It is used by the Buffer via the
@@ -81,6 +137,48 @@ public abstract class AppObject implements Bufferable, Renderable {
         //Override if needed
     }
 
+    /**
+     * When the host app updates in parallel, the objects which return true
+     * are updated at the same time on several threads.
+     * <p>
+     * Override it to return true only if {@link #update()} changes
+     * nothing but the object itself: it can add and remove objects,
+     * read the keys from {@link App#getInputSnapshot()} and find objects
+     * by tag name or by position through the app,
+     * but it must not change other objects, read their changing state,
+     * or change its tag name. It can't call {@link App#getInput()},
+     * which takes the keys in the order of the objects.
+     *
+     * @return true if the object can be updated in parallel with others.
+     */
+    public boolean isParallelSafe() {
+        return false;
+    }
+
+    /**
+     * Called after the object was added to the host app.
+     */
+    public void onAdded() {
+        //Override if needed
+    }
+
+    /**
+     * Called after the object was removed from the host app.
+     */
+    public void onRemoved() {
+        //Override if needed
+    }
+
+    /**
+     * Called when the object is put back to its {@link AppObjectPool}
+     * after it was removed from the host app.
+     * Override it to set the state of the object back to how it was
+     * created, so it can be reused.
+     */
+    public void onReset() {
+        //Override if needed
+    }
+
     /**
      * @return the x position of the object.
      */
@@ -105,13 +203,173 @@ public abstract class AppObject implements Bufferable, Renderable {
         return new RenderData(this.xPos, this.yPos, this.renderSymbols);
     }
 
+    /**
+     * Draws the object on the canvas straight from
+     * {@link #xPos}, {@link #yPos} and {@link #renderSymbols},
+     * unless a subclass overrides {@link #getRenderData()}.
+     *
+     * @param canvas where the object will be drawn.
+     */
+    @Override
+    public void render(Canvas canvas) {
+        if (OVERRIDES_GET_RENDER_DATA.get(getClass())) {
+            DirtyTrackable.super.render(canvas);
+        } else {
+            canvas.draw(this.xPos, this.yPos, this.renderSymbols);
+        }
+    }
+
+    /**
+     * Moves the object to the given position.
+     *
+     * @param xPos the new x position of the object.
+     * @param yPos the new y position of the object.
+     */
+    protected void setPosition(int xPos, int yPos) {
+        this.xPos = xPos;
+        this.yPos = yPos;
+    }
+
+    /**
+     * Changes the order the object is drawn in,
+     * it's drawn over the objects with a lower z-index.
+     *
+     * @param zIndex the new z-index of the object.
+     */
+    protected void setZIndex(int zIndex) {
+        if (this.zIndex != zIndex) {
+            this.zIndex = zIndex;
+            markDirty();
+        }
+    }
+
+    /**
+     * @return the z-index of the object.
+     */
+    @Override
+    public int getZIndex() {
+        return this.zIndex;
+    }
+
+    /**
+     * Replaces the characters that represent the object on the screen.
+     *
+     * @param renderSymbols the new characters of the object.
+     */
+    protected void setRenderSymbols(char[][] renderSymbols) {
+        this.renderSymbols = renderSymbols;
+    }
+
+    /**
+     * Lets the view know that the object has to be drawn again.
+     * <p>
+     * Moving the object and replacing {@link #renderSymbols} is noticed anyway,
+     * it is needed only when the characters of {@link #renderSymbols} are changed in place
+     * and the app repaints only the changed regions, see {@link App#setDirtyTracking(boolean)}.
+     */
+    public void markDirty() {
+        this.isRenderVersionValid = false;
+    }
+
+    /**
+     * @return the x position of what is drawn.
+     */
+    @Override
+    public int getRenderX() {
+        return this.xPos;
+    }
+
+    /**
+     * @return the y position of what is drawn.
+     */
+    @Override
+    public int getRenderY() {
+        return this.yPos;
+    }
+
+    /**
+     * @return the length of the longest row of {@link #renderSymbols}.
+     */
+    @Override
+    public int getRenderWidth() {
+        updateRenderVersion();
+        return this.renderWidth;
+    }
+
+    /**
+     * @return the number of rows of {@link #renderSymbols}.
+     */
+    @Override
+    public int getRenderHeight() {
+        return this.renderSymbols == null ? 0 : this.renderSymbols.length;
+    }
+
+    /**
+     * @return a number which changes whenever {@link #renderSymbols} changes.
+     */
+    @Override
+    public long getRenderVersion() {
+        updateRenderVersion();
+        return this.renderVersion;
+    }
+
+    /**
+     * The changes of an object which overrides {@link #getRenderData()} can't be tracked.
+     *
+     * @return true unless a subclass overrides {@link #getRenderData()}.
+     */
+    @Override
+    public boolean isDirtyTrackable() {
+        return !OVERRIDES_GET_RENDER_DATA.get(getClass());
+    }
+
+    /**
+     * @return true if a subclass overrides {@link #getRenderData()}, so the object is drawn by that.
+     */
+    boolean isDrawnByRenderData() {
+        return OVERRIDES_GET_RENDER_DATA.get(getClass());
+    }
+
+    /**
+     * Steps {@link #renderVersion} and measures {@link #renderWidth}
+     * if {@link #renderSymbols} has changed since the last call.
+     */
+    private void updateRenderVersion() {
+        if (this.isRenderVersionValid && this.renderSymbols == this.versionedRenderSymbols) {
+            return;
+        }
+
+        this.isRenderVersionValid = true;
+        this.versionedRenderSymbols = this.renderSymbols;
+        this.renderVersion++;
+        this.renderWidth = 0;
+        if (this.renderSymbols != null) {
+            for (char[] row : this.renderSymbols) {
+                this.renderWidth = Math.max(this.renderWidth, row.length);
+            }
+        }
+    }
+
     /**
      * @return the tag name of the object
      */
-    String getTagName() {
+    public String getTagName() {
         return this.tagName;
     }
 
+    /**
+     * Changes the tag name of the object
+     * and lets the host app know about it.
+     *
+     * @param tagName the new tag name of the object
+     */
+    protected void setTagName(String tagName) {
+        this.tagName = tagName;
+        if (app != null) {
+            app.onTagNameChanged(this);
+        }
+    }
+
     /**
      * @return the BufferTag
      */
@@ -0,0 +1,176 @@
+package com.codecool.core;
+
+import com.codecool.core.buffer.BufferListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Indexes the app objects of App by tag name
+ * and by concrete class.
+ * <p>
+ * It's kept up to date by the Buffer of the app objects
+ * and by {@link AppObject#setTagName(String)},
+ * so a lookup returns a read-only view of a group
+ * without going through every app object.
+ * <p>
+ * The objects removed by a process of the Buffer are taken out of
+ * each group in one pass at the end of it, compared by identity,
+ * so removing a whole group at once costs the same as removing one.
+ */
+
+class AppObjectIndex implements BufferListener<AppObject> {
+
+    /**
+     * The app objects grouped by tag name.
+     */
+    private Map<String, Group> groupsByTagName = new HashMap<>();
+
+    /**
+     * The app objects grouped by concrete class.
+     */
+    private Map<Class<?>, Group> groupsByClass = new HashMap<>();
+
+    /**
+     * The groups which have objects removed in the current process of the Buffer.
+     */
+    private List<Group> groupsWithRemovals = new ArrayList<>();
+
+    /**
+     * Adds the app object to its groups.
+     *
+     * @param appObject that was added to the app
+     */
+    @Override
+    public void onAdded(AppObject appObject) {
+        appObject.indexedTagName = appObject.getTagName();
+        groupsByTagName.computeIfAbsent(appObject.indexedTagName, key -> new Group()).objects.add(appObject);
+        groupsByClass.computeIfAbsent(appObject.getClass(), key -> new Group()).objects.add(appObject);
+    }
+
+    /**
+     * Removes the app object from its groups.
+     *
+     * @param appObject that was removed from the app
+     */
+    @Override
+    public void onRemoved(AppObject appObject) {
+        markRemoved(groupsByTagName.get(appObject.indexedTagName), appObject);
+        markRemoved(groupsByClass.get(appObject.getClass()), appObject);
+        appObject.indexedTagName = null;
+    }
+
+    /**
+     * Takes the removed objects out of their groups.
+     */
+    @Override
+    public void onProcessed() {
+        for (int i = 0; i < groupsWithRemovals.size(); i++) {
+            groupsWithRemovals.get(i).removeMarked();
+        }
+        groupsWithRemovals.clear();
+    }
+
+    /**
+     * Moves the app object to the group of its current tag name,
+     * if it's in the index.
+     *
+     * @param appObject which tag name was changed
+     */
+    void onTagNameChanged(AppObject appObject) {
+        if (appObject.indexedTagName == null || appObject.indexedTagName.equals(appObject.getTagName())) {
+            return;
+        }
+
+        removeFromGroup(groupsByTagName.get(appObject.indexedTagName), appObject);
+        appObject.indexedTagName = appObject.getTagName();
+        groupsByTagName.computeIfAbsent(appObject.indexedTagName, key -> new Group()).objects.add(appObject);
+    }
+
+    /**
+     * @param tagName the name of the objects
+     * @return a read-only view of the app objects with the tag name.
+     */
+    List<AppObject> getByTagName(String tagName) {
+        Group group = groupsByTagName.get(tagName);
+        return group == null ? Collections.emptyList() : group.view;
+    }
+
+    /**
+     * @param type the concrete class of the objects
+     * @return a read-only view of the app objects of the class.
+     */
+    @SuppressWarnings("unchecked")
+    <T extends AppObject> List<T> getByClass(Class<T> type) {
+        Group group = groupsByClass.get(type);
+        return group == null ? Collections.emptyList() : (List<T>) group.view;
+    }
+
+    /**
+     * Marks the app object to be taken out of the group in {@link #onProcessed()}.
+     */
+    private void markRemoved(Group group, AppObject appObject) {
+        if (group == null) {
+            return;
+        }
+        if (group.removed.isEmpty()) {
+            groupsWithRemovals.add(group);
+        }
+        group.removed.add(appObject);
+    }
+
+    /**
+     * Takes the app object out of the group right away, compared by identity.
+     */
+    private void removeFromGroup(Group group, AppObject appObject) {
+        if (group == null) {
+            return;
+        }
+        for (int i = 0; i < group.objects.size(); i++) {
+            if (group.objects.get(i) == appObject) {
+                group.objects.remove(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Holds the objects of a group and the read-only view of them.
+     */
+    private static class Group {
+
+        private final List<AppObject> objects = new ArrayList<>();
+
+        private final List<AppObject> view = Collections.unmodifiableList(objects);
+
+        /**
+         * The objects removed in the current process of the Buffer.
+         */
+        private final Set<AppObject> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        /**
+         * Takes {@link #removed} out of {@link #objects} in one pass,
+         * by moving the kept objects forward, the order of them is kept.
+         */
+        private void removeMarked() {
+            int size = objects.size();
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                AppObject appObject = objects.get(i);
+                if (!removed.contains(appObject)) {
+                    if (kept != i) {
+                        objects.set(kept, appObject);
+                    }
+                    kept++;
+                }
+            }
+            objects.subList(kept, size).clear();
+            removed.clear();
+        }
+    }
+}
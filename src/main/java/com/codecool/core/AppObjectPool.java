@@ -0,0 +1,106 @@
+package com.codecool.core;
+
+import java.util.ArrayDeque;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the removed app objects of a class to be reused,
+ * instead of creating a new one for every shot or explosion.
+ * <p>
+ * It's created by {@link App#addPool(Class, Supplier)}, after that
+ * every object of the class removed from the app is reset by
+ * {@link AppObject#onReset()} and put back to the pool.
+ * {@link #obtain()} returns one of them, or creates a new one by the factory
+ * if the pool is empty, which then has to be added to the app as usual.
+ */
+
+public class AppObjectPool<T extends AppObject> {
+
+    /**
+     * Creates a new object when the pool is empty.
+     */
+    private final Supplier<T> factory;
+
+    /**
+     * The most objects kept, the ones removed above it are left to the garbage collector.
+     */
+    private final int maxSize;
+
+    /**
+     * The objects waiting to be reused.
+     */
+    private final ArrayDeque<T> freeObjects = new ArrayDeque<>();
+
+    /**
+     * The number of objects created by {@link #factory}.
+     */
+    private long createdCount;
+
+    /**
+     * The number of objects reused from the pool.
+     */
+    private long reusedCount;
+
+    /**
+     * Constructs an empty AppObjectPool.
+     *
+     * @param factory creates a new object when the pool is empty.
+     * @param maxSize the most objects kept.
+     */
+    AppObjectPool(Supplier<T> factory, int maxSize) {
+        this.factory = factory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return an object which was reset, or a new one if the pool is empty.
+     */
+    public T obtain() {
+        T appObject = freeObjects.pollLast();
+        if (appObject == null) {
+            createdCount++;
+            return factory.get();
+        }
+
+        reusedCount++;
+        appObject.isPooled = false;
+        return appObject;
+    }
+
+    /**
+     * Resets the object and puts it back to the pool, unless it's full
+     * or the object is already in it.
+     *
+     * @param appObject that was removed from the app.
+     */
+    void release(T appObject) {
+        if (appObject.isPooled || freeObjects.size() >= maxSize) {
+            return;
+        }
+
+        appObject.onReset();
+        appObject.isPooled = true;
+        freeObjects.addLast(appObject);
+    }
+
+    /**
+     * @return the number of objects waiting to be reused.
+     */
+    public int getFreeCount() {
+        return this.freeObjects.size();
+    }
+
+    /**
+     * @return the number of objects created because the pool was empty.
+     */
+    public long getCreatedCount() {
+        return this.createdCount;
+    }
+
+    /**
+     * @return the number of objects reused from the pool.
+     */
+    public long getReusedCount() {
+        return this.reusedCount;
+    }
+}
@@ -0,0 +1,160 @@
+package com.codecool.core;
+
+/**
+ * Holds the timing and the counters of the main loop of App,
+ * it can be read with {@link App#getMetrics()}.
+ * <p>
+ * The duration of every {@link FramePhase} is recorded in nanoseconds
+ * in its own {@link LatencyHistogram}, nothing is allocated while recording.
+ */
+
+public class FrameMetrics {
+
+    /**
+     * Indexed by {@link FramePhase#ordinal()}.
+     */
+    private final LatencyHistogram[] phaseHistograms = new LatencyHistogram[FramePhase.values().length];
+
+    /**
+     * The time of a loop of App, without the sleep.
+     */
+    private final LatencyHistogram loopHistogram = new LatencyHistogram();
+
+    /**
+     * The number of updates.
+     */
+    private long tickCount;
+
+    /**
+     * The number of frames rendered.
+     */
+    private long frameCount;
+
+    /**
+     * The number of frames skipped because the app was behind.
+     */
+    private long droppedFrameCount;
+
+    /**
+     * The number of app object and animation updates.
+     */
+    private long updatedObjectCount;
+
+    /**
+     * The number of bytes written to the output.
+     */
+    private long bytesWritten;
+
+    /**
+     * Constructs an empty FrameMetrics.
+     */
+    public FrameMetrics() {
+        for (int i = 0; i < phaseHistograms.length; i++) {
+            phaseHistograms[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * @param phase      which took the time
+     * @param durationNs in nanoseconds
+     */
+    void recordPhase(FramePhase phase, long durationNs) {
+        phaseHistograms[phase.ordinal()].record(durationNs);
+    }
+
+    /**
+     * @param durationNs of a loop without the sleep, in nanoseconds
+     */
+    void recordLoop(long durationNs) {
+        loopHistogram.record(durationNs);
+    }
+
+    /**
+     * @param updatedObjects the number of objects updated in the tick
+     */
+    void recordTick(int updatedObjects) {
+        tickCount++;
+        updatedObjectCount += updatedObjects;
+    }
+
+    /**
+     * Counts a frame rendered.
+     */
+    void recordFrame() {
+        frameCount++;
+    }
+
+    /**
+     * @param droppedFrameCount the number of frames skipped since the app was started.
+     */
+    void setDroppedFrameCount(long droppedFrameCount) {
+        this.droppedFrameCount = droppedFrameCount;
+    }
+
+    /**
+     * @param bytesWritten the number of bytes written since the app was started.
+     */
+    void setBytesWritten(long bytesWritten) {
+        this.bytesWritten = bytesWritten;
+    }
+
+    /**
+     * Forgets the durations recorded, the counters are kept.
+     */
+    public void resetHistograms() {
+        for (LatencyHistogram histogram : phaseHistograms) {
+            histogram.reset();
+        }
+        loopHistogram.reset();
+    }
+
+    /**
+     * @param phase of the main loop
+     * @return the durations of the phase in nanoseconds.
+     */
+    public LatencyHistogram getHistogram(FramePhase phase) {
+        return phaseHistograms[phase.ordinal()];
+    }
+
+    /**
+     * @return the durations of the loops without the sleep in nanoseconds.
+     */
+    public LatencyHistogram getLoopHistogram() {
+        return loopHistogram;
+    }
+
+    /**
+     * @return the number of updates.
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * @return the number of frames rendered.
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @return the number of frames skipped because the app was behind.
+     */
+    public long getDroppedFrameCount() {
+        return droppedFrameCount;
+    }
+
+    /**
+     * @return the number of app object and animation updates.
+     */
+    public long getUpdatedObjectCount() {
+        return updatedObjectCount;
+    }
+
+    /**
+     * @return the number of bytes written to the output.
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+}
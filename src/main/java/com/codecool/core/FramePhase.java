@@ -0,0 +1,40 @@
+package com.codecool.core;
+
+/**
+ * It is a util like class to support FrameMetrics.
+ * The enums represents the phases of the main loop of App,
+ * each one is timed separately.
+ */
+
+public enum FramePhase {
+
+    /**
+     * Capturing the keys pressed.
+     */
+    INPUT,
+
+    /**
+     * Applying the additions and removals of the buffers.
+     */
+    BUFFER,
+
+    /**
+     * Calling the key handlers and updating the app objects and the animations.
+     */
+    UPDATE,
+
+    /**
+     * Drawing the objects to the canvas.
+     */
+    COMPOSE,
+
+    /**
+     * Writing the canvas to the output, or handing it to the output thread if it's pipelined.
+     */
+    WRITE,
+
+    /**
+     * Sleeping until the next tick or frame is due.
+     */
+    SLEEP
+}
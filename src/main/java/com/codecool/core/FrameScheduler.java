@@ -0,0 +1,144 @@
+package com.codecool.core;
+
+/**
+ * Holds the timing of the main loop of App.
+ * <p>
+ * It keeps a monotonic deadline ({@link System#nanoTime()})
+ * for the next update (tick) and for the next render (frame),
+ * so the rates don't drift with the time spent in them.
+ * <br>
+ * When the app falls behind, {@link #getDueTicks(long)} returns
+ * every missed tick (up to {@link #MAX_CATCH_UP_TICKS}) to catch up on,
+ * while {@link #isFrameDue(long)} skips the missed frames.
+ */
+
+class FrameScheduler {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    /**
+     * The most ticks that are caught up on at once,
+     * the rest are dropped so a slow app can't fall behind forever.
+     */
+    private static final int MAX_CATCH_UP_TICKS = 5;
+
+    /**
+     * The time between two ticks in nanoseconds.
+     */
+    private final long tickInterval;
+
+    /**
+     * The time between two frames in nanoseconds.
+     */
+    private final long frameInterval;
+
+    /**
+     * The deadline of the next tick.
+     */
+    private long nextTickTime;
+
+    /**
+     * The deadline of the next frame.
+     */
+    private long nextFrameTime;
+
+    /**
+     * The number of frames skipped because the app was behind.
+     */
+    private long droppedFrames;
+
+    /**
+     * Constructs a FrameScheduler with the specified rates.
+     *
+     * @param ticksPerSecond  how many times the app is updated in a second.
+     * @param framesPerSecond how many times the app is rendered in a second.
+     */
+    FrameScheduler(int ticksPerSecond, int framesPerSecond) {
+        if (ticksPerSecond <= 0 || framesPerSecond <= 0) {
+            throw new IllegalArgumentException("ticksPerSecond and framesPerSecond have to be positive");
+        }
+        this.tickInterval = NANOS_PER_SECOND / ticksPerSecond;
+        this.frameInterval = NANOS_PER_SECOND / framesPerSecond;
+    }
+
+    /**
+     * Makes the first tick and frame due at the given time.
+     *
+     * @param now the current {@link System#nanoTime()}
+     */
+    void start(long now) {
+        this.nextTickTime = now;
+        this.nextFrameTime = now;
+    }
+
+    /**
+     * @param now the current {@link System#nanoTime()}
+     * @return how many ticks have to be run now.
+     */
+    int getDueTicks(long now) {
+        if (now < nextTickTime) {
+            return 0;
+        }
+
+        long dueTicks = (now - nextTickTime) / tickInterval + 1;
+        if (dueTicks > MAX_CATCH_UP_TICKS) {
+            nextTickTime = now + tickInterval;
+            return MAX_CATCH_UP_TICKS;
+        }
+        nextTickTime += dueTicks * tickInterval;
+        return (int) dueTicks;
+    }
+
+    /**
+     * Frames missed while the app was behind are skipped,
+     * the next one is scheduled a whole interval from now.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @return true if a frame has to be rendered now.
+     */
+    boolean isFrameDue(long now) {
+        if (now < nextFrameTime) {
+            return false;
+        }
+
+        nextFrameTime += frameInterval;
+        if (nextFrameTime <= now) {
+            droppedFrames += (now - nextFrameTime) / frameInterval + 1;
+            nextFrameTime = now + frameInterval;
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of frames skipped by {@link #isFrameDue(long)} so far.
+     */
+    long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    /**
+     * @param now the current {@link System#nanoTime()}
+     * @return the nanoseconds until the next tick or frame is due.
+     */
+    long getNanosUntilNextEvent(long now) {
+        return Math.max(0, Math.min(nextTickTime, nextFrameTime) - now);
+    }
+
+    /**
+     * Sleeps until the next tick or frame is due.
+     */
+    void sleepUntilNextEvent() {
+        long nanos = getNanosUntilNextEvent(System.nanoTime());
+        if (nanos <= 0) {
+            return;
+        }
+
+        try {
+            Thread.sleep(nanos / NANOS_PER_MILLI, (int) (nanos % NANOS_PER_MILLI));
+        } catch (Exception e) {
+            System.err.println("Error at FrameScheduler.sleepUntilNextEvent()\n" + e);
+        }
+    }
+}
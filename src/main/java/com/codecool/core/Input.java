@@ -1,24 +1,169 @@
 package com.codecool.core;
 
+import java.io.InputStream;
+import java.util.List;
+
 /**
  * Holds the method that used by App
  * to provide flawless input reading.
+ * <p>
+ * The terminal is read on a dedicated daemon thread, which decodes
+ * the bytes into key events and puts them to a lock-free queue,
+ * so the main loop never waits for or polls the terminal.
+ * <p>
+ * The reader only reads the bytes available, and waits shortly if there are none,
+ * because a blocked read can't be interrupted. So {@link #stop()} ends it
+ * and nothing is taken from the terminal after the app.
  */
 
-class Input {
+class Input implements KeySource {
 
     /**
-     * @return input character or null
+     * The number of key events kept until the app takes them.
      */
-    Character tryToRead() {
+    private static final int QUEUE_CAPACITY = 256;
+
+    /**
+     * How long the reader waits for the rest of an escape sequence
+     * before it treats a lone escape byte as the escape key.
+     */
+    private static final long ESCAPE_TIMEOUT_MILLIS = 25;
+
+    /**
+     * How long the reader waits before it looks again, if nothing was typed.
+     */
+    private static final long POLL_INTERVAL_MILLIS = 2;
+
+    /**
+     * How long {@link #stop()} waits for the reader to end.
+     */
+    private static final long STOP_TIMEOUT_MILLIS = 100;
+
+    /**
+     * Where the key events are read from.
+     */
+    private final InputStream inputStream;
+
+    /**
+     * The key events read but not taken by the app yet.
+     */
+    private final KeyEventQueue queue = new KeyEventQueue(QUEUE_CAPACITY);
+
+    /**
+     * Decodes the bytes read, used only by {@link #readerThread}.
+     */
+    private final KeyDecoder decoder = new KeyDecoder();
+
+    /**
+     * Reads {@link #inputStream}, null until {@link #start()}.
+     */
+    private Thread readerThread;
+
+    /**
+     * False after {@link #stop()} was called, then the reader ends.
+     */
+    private volatile boolean isReading;
+
+    /**
+     * Constructs an Input which reads the terminal.
+     */
+    Input() {
+        this(System.in);
+    }
+
+    /**
+     * Constructs an Input which reads the specified stream.
+     *
+     * @param inputStream where the key events are read from.
+     */
+    Input(InputStream inputStream) {
+        this.inputStream = inputStream;
+    }
+
+    /**
+     * Starts reading on a dedicated thread, does nothing if it has been started.
+     */
+    void start() {
+        if (readerThread != null) {
+            return;
+        }
+        isReading = true;
+        readerThread = new Thread(this::read, "input-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    /**
+     * Ends the reader and waits for it shortly, does nothing if it hasn't been started.
+     */
+    void stop() {
+        if (readerThread == null) {
+            return;
+        }
+        isReading = false;
+        readerThread.interrupt();
+        try {
+            readerThread.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        readerThread = null;
+    }
+
+    /**
+     * Reads and decodes until {@link #stop()} or the end of {@link #inputStream}.
+     * A lone escape byte is kept back shortly, if nothing follows it
+     * then it's the escape key, otherwise the start of a sequence.
+     */
+    private void read() {
+        byte[] bytes = new byte[64];
         try {
-            if (System.in.available() > 0) {
-                return (char) System.in.read();
+            while (isReading) {
+                if (inputStream.available() == 0) {
+                    Thread.sleep(POLL_INTERVAL_MILLIS);
+                    continue;
+                }
+                int length = inputStream.read(bytes);
+                if (length == -1) {
+                    return;
+                }
+                decoder.decode(bytes, length, System.nanoTime(), queue);
+                if (decoder.hasPendingEscape()) {
+                    Thread.sleep(ESCAPE_TIMEOUT_MILLIS);
+                    if (inputStream.available() == 0) {
+                        decoder.flushPendingEscape(System.nanoTime(), queue);
+                    }
+                }
             }
+        } catch (InterruptedException e) {
+            // stopped
         } catch (Exception e) {
+            System.err.println("Error at Input.read()\n" + e);
+        }
+    }
 
-            System.err.println("Error " + e.getMessage());
+    /**
+     * Takes every key event read since the last call at once.
+     *
+     * @param events where the key events are added in the order they were read.
+     */
+    @Override
+    public void drainEvents(List<KeyEvent> events) {
+        queue.drainTo(events);
+    }
+
+    /**
+     * Keys without a character, like the arrows, are skipped.
+     *
+     * @return input character or null
+     */
+    Character tryToRead() {
+        KeyEvent event;
+        while ((event = queue.poll()) != null) {
+            if (event.getCharacter() != '\0') {
+                return event.getCharacter();
+            }
         }
         return null;
     }
-}
\ No newline at end of file
+}
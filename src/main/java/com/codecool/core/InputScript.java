@@ -0,0 +1,133 @@
+package com.codecool.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A timeline of keys pressed at given frames,
+ * it's fed to the app by {@link App#simulate(int, InputScript)} instead of the terminal,
+ * so every run of a simulation gets the same input.
+ * <p>
+ * The timestamp of a scripted key event is the number of its frame.
+ */
+
+public class InputScript implements KeySource {
+
+    /**
+     * The key events by the number of the frame where they are pressed.
+     */
+    private final Map<Integer, List<KeyEvent>> eventsByFrame = new HashMap<>();
+
+    /**
+     * The number of the frame whose key events are taken next.
+     */
+    private int frame;
+
+    /**
+     * Presses a key without a character, or with its usual one,
+     * e.g. '\r' for enter.
+     *
+     * @param frame the number of the frame, from 0.
+     * @param key   that will be pressed.
+     * @return this script.
+     */
+    public InputScript press(int frame, Key key) {
+        return add(frame, new KeyEvent(key, getCharacter(key), frame));
+    }
+
+    /**
+     * Presses the key of a character.
+     *
+     * @param frame     the number of the frame, from 0.
+     * @param character that will be pressed.
+     * @return this script.
+     */
+    public InputScript press(int frame, char character) {
+        return add(frame, new KeyEvent(getKey(character), character, frame));
+    }
+
+    /**
+     * Presses the characters of a text one after another in the same frame.
+     *
+     * @param frame the number of the frame, from 0.
+     * @param text  whose characters will be pressed.
+     * @return this script.
+     */
+    public InputScript type(int frame, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            press(frame, text.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Starts the timeline again from the first frame.
+     */
+    public void rewind() {
+        this.frame = 0;
+    }
+
+    /**
+     * Takes the key events of the next frame.
+     */
+    @Override
+    public void drainEvents(List<KeyEvent> events) {
+        List<KeyEvent> frameEvents = eventsByFrame.get(frame);
+        if (frameEvents != null) {
+            events.addAll(frameEvents);
+        }
+        frame++;
+    }
+
+    /**
+     * @param frame the number of the frame.
+     * @param event that will be pressed in it.
+     * @return this script.
+     */
+    private InputScript add(int frame, KeyEvent event) {
+        eventsByFrame.computeIfAbsent(frame, f -> new ArrayList<>()).add(event);
+        return this;
+    }
+
+    /**
+     * @param key that is pressed.
+     * @return the character the terminal sends for the key, '\0' if it has none.
+     */
+    private static char getCharacter(Key key) {
+        switch (key) {
+            case ENTER:
+                return '\r';
+            case TAB:
+                return '\t';
+            case BACKSPACE:
+                return '\u007f';
+            case ESCAPE:
+                return '\033';
+            default:
+                return '\0';
+        }
+    }
+
+    /**
+     * @param character that is pressed.
+     * @return the key the terminal sends the character with.
+     */
+    private static Key getKey(char character) {
+        switch (character) {
+            case '\r':
+            case '\n':
+                return Key.ENTER;
+            case '\t':
+                return Key.TAB;
+            case '\b':
+            case '\u007f':
+                return Key.BACKSPACE;
+            case '\033':
+                return Key.ESCAPE;
+            default:
+                return Key.CHARACTER;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.codecool.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The keys pressed since the previous update, captured once
+ * by App before the update, so every app object sees the same keys.
+ * <p>
+ * It can't be changed by the app objects, App refills it for every update.
+ */
+
+public class InputSnapshot {
+
+    /**
+     * The number of characters which are looked up in {@link #isCharacterPressed}.
+     */
+    private static final int ASCII_SIZE = 128;
+
+    /**
+     * The key events of the update in the order they were read.
+     */
+    private final List<KeyEvent> events = new ArrayList<>();
+
+    /**
+     * The read-only view of {@link #events}.
+     */
+    private final List<KeyEvent> eventsView = Collections.unmodifiableList(events);
+
+    /**
+     * Indexed by {@link Key#ordinal()}.
+     */
+    private final boolean[] isKeyPressed = new boolean[Key.values().length];
+
+    /**
+     * Indexed by the ASCII characters, the others are searched in {@link #events}.
+     */
+    private final boolean[] isCharacterPressed = new boolean[ASCII_SIZE];
+
+    /**
+     * The index of the next event in {@link #events} read by {@link #readCharacter()}.
+     */
+    private int readIndex;
+
+    /**
+     * Replaces the content with the key events taken from the source.
+     *
+     * @param keySource where the key events are taken from, the terminal or a script.
+     */
+    void capture(KeySource keySource) {
+        clear();
+        keySource.drainEvents(events);
+        for (int i = 0; i < events.size(); i++) {
+            KeyEvent event = events.get(i);
+            isKeyPressed[event.getKey().ordinal()] = true;
+            if (event.getCharacter() < ASCII_SIZE) {
+                isCharacterPressed[event.getCharacter()] = true;
+            }
+        }
+        isCharacterPressed['\0'] = false;
+    }
+
+    /**
+     * Removes every key event.
+     */
+    void clear() {
+        events.clear();
+        readIndex = 0;
+        Arrays.fill(isKeyPressed, false);
+        Arrays.fill(isCharacterPressed, false);
+    }
+
+    /**
+     * @param key to check
+     * @return true if the key was pressed since the previous update.
+     */
+    public boolean isPressed(Key key) {
+        return isKeyPressed[key.ordinal()];
+    }
+
+    /**
+     * @param character to check
+     * @return true if a key with the character was pressed since the previous update.
+     */
+    public boolean isPressed(char character) {
+        if (character < ASCII_SIZE) {
+            return isCharacterPressed[character];
+        }
+        for (int i = 0; i < events.size(); i++) {
+            if (events.get(i).getCharacter() == character) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the key events since the previous update in the order they were read.
+     */
+    public List<KeyEvent> getEvents() {
+        return eventsView;
+    }
+
+    /**
+     * Keys without a character, like the arrows, are skipped.
+     *
+     * @return the character of the first key pressed, or null.
+     */
+    public Character getFirstCharacter() {
+        for (int i = 0; i < events.size(); i++) {
+            if (events.get(i).getCharacter() != '\0') {
+                return events.get(i).getCharacter();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes the characters of the keys pressed one by one, every call returns the next one,
+     * like reading them from the terminal. Keys without a character, like the arrows, are skipped.
+     * It's only called from the serial part of the update, so the order of the readers decides who gets a key.
+     *
+     * @return the character of the next key pressed, or null if every one was read.
+     */
+    Character readCharacter() {
+        while (readIndex < events.size()) {
+            char character = events.get(readIndex++).getCharacter();
+            if (character != '\0') {
+                return character;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.codecool.core;
+
+/**
+ * It is a util like class to support KeyEvent.
+ * The enums represents the keys which can be
+ * decoded from the terminal input.
+ * <p>
+ * CHARACTER is any printable character,
+ * the rest are special keys.
+ */
+
+public enum Key {
+    CHARACTER, ENTER, TAB, BACKSPACE, ESCAPE,
+    UP, DOWN, LEFT, RIGHT,
+    HOME, END, INSERT, DELETE, PAGE_UP, PAGE_DOWN,
+    F1, F2, F3, F4, F5, F6, F7, F8, F9, F10, F11, F12
+}
@@ -0,0 +1,252 @@
+package com.codecool.core;
+
+/**
+ * Decodes the bytes read from the terminal into key events.
+ * <p>
+ * It understands UTF-8 characters, the common control characters
+ * and the escape sequences of the arrows, the editing keys and F1-F12
+ * sent by xterm compatible terminals. A sequence can be split
+ * between two calls of {@link #decode(byte[], int, long, KeyEventQueue)}.
+ */
+
+class KeyDecoder {
+
+    private static final int GROUND = 0;
+
+    private static final int ESCAPE = 1;
+
+    private static final int CONTROL_SEQUENCE = 2;
+
+    private static final int SINGLE_SHIFT = 3;
+
+    private static final int UTF8 = 4;
+
+    private static final int CONTROL_SEQUENCE_MODIFIERS = 5;
+
+    /**
+     * What the next byte is expected to be.
+     */
+    private int state = GROUND;
+
+    /**
+     * The first number parameter of a control sequence.
+     */
+    private int parameter;
+
+    /**
+     * The code point of a UTF-8 character decoded so far.
+     */
+    private int codePoint;
+
+    /**
+     * The number of UTF-8 continuation bytes still expected.
+     */
+    private int remainingBytes;
+
+    /**
+     * Decodes the bytes and puts the complete key events to the queue.
+     *
+     * @param bytes     read from the terminal
+     * @param length    the number of bytes read
+     * @param timestamp the {@link System#nanoTime()} when they were read
+     * @param queue     where the key events are put
+     */
+    void decode(byte[] bytes, int length, long timestamp, KeyEventQueue queue) {
+        for (int i = 0; i < length; i++) {
+            decode(bytes[i] & 0xFF, timestamp, queue);
+        }
+    }
+
+    /**
+     * A lone escape byte can be the escape key or the start of a sequence,
+     * it is decided by whether more bytes arrive soon.
+     *
+     * @return true if the last byte decoded is a lone escape.
+     */
+    boolean hasPendingEscape() {
+        return state == ESCAPE;
+    }
+
+    /**
+     * Puts the pending escape to the queue as the escape key.
+     *
+     * @param timestamp the {@link System#nanoTime()} of the key event
+     * @param queue     where the key event is put
+     */
+    void flushPendingEscape(long timestamp, KeyEventQueue queue) {
+        if (state == ESCAPE) {
+            queue.offer(new KeyEvent(Key.ESCAPE, '\033', timestamp));
+            state = GROUND;
+        }
+    }
+
+    private void decode(int b, long timestamp, KeyEventQueue queue) {
+        switch (state) {
+            case ESCAPE:
+                if (b == '[') {
+                    state = CONTROL_SEQUENCE;
+                    parameter = 0;
+                } else if (b == 'O') {
+                    state = SINGLE_SHIFT;
+                } else {
+                    queue.offer(new KeyEvent(Key.ESCAPE, '\033', timestamp));
+                    state = GROUND;
+                    decodeGround(b, timestamp, queue);
+                }
+                break;
+            case CONTROL_SEQUENCE:
+                if (b >= '0' && b <= '9') {
+                    parameter = parameter * 10 + (b - '0');
+                } else if (b == ';') {
+                    state = CONTROL_SEQUENCE_MODIFIERS;
+                } else {
+                    finishControlSequence(b, timestamp, queue);
+                }
+                break;
+            case CONTROL_SEQUENCE_MODIFIERS:
+                // the modifiers are skipped, only the first parameter matters
+                if (b < '0' || b > '9') {
+                    finishControlSequence(b, timestamp, queue);
+                }
+                break;
+            case SINGLE_SHIFT:
+                offerSpecialKey(toSingleShiftKey(b), timestamp, queue);
+                state = GROUND;
+                break;
+            case UTF8:
+                if ((b & 0xC0) != 0x80) {
+                    state = GROUND;
+                    decodeGround(b, timestamp, queue);
+                    break;
+                }
+                codePoint = (codePoint << 6) | (b & 0x3F);
+                if (--remainingBytes == 0) {
+                    state = GROUND;
+                    char character = codePoint < 0x10000 ? (char) codePoint : '\uFFFD';
+                    queue.offer(new KeyEvent(Key.CHARACTER, character, timestamp));
+                }
+                break;
+            default:
+                decodeGround(b, timestamp, queue);
+        }
+    }
+
+    private void decodeGround(int b, long timestamp, KeyEventQueue queue) {
+        if (b == 0x1B) {
+            state = ESCAPE;
+        } else if (b == '\r' || b == '\n') {
+            queue.offer(new KeyEvent(Key.ENTER, (char) b, timestamp));
+        } else if (b == '\t') {
+            queue.offer(new KeyEvent(Key.TAB, '\t', timestamp));
+        } else if (b == 0x7F || b == 0x08) {
+            queue.offer(new KeyEvent(Key.BACKSPACE, (char) b, timestamp));
+        } else if (b < 0x80) {
+            queue.offer(new KeyEvent(Key.CHARACTER, (char) b, timestamp));
+        } else if ((b & 0xE0) == 0xC0) {
+            startUtf8(b & 0x1F, 1);
+        } else if ((b & 0xF0) == 0xE0) {
+            startUtf8(b & 0x0F, 2);
+        } else if ((b & 0xF8) == 0xF0) {
+            startUtf8(b & 0x07, 3);
+        }
+    }
+
+    private void startUtf8(int firstBits, int continuationBytes) {
+        state = UTF8;
+        codePoint = firstBits;
+        remainingBytes = continuationBytes;
+    }
+
+    private void finishControlSequence(int finalByte, long timestamp, KeyEventQueue queue) {
+        state = GROUND;
+        if (finalByte == '~') {
+            offerSpecialKey(toTildeKey(parameter), timestamp, queue);
+        } else {
+            offerSpecialKey(toSingleShiftKey(finalByte), timestamp, queue);
+        }
+    }
+
+    private void offerSpecialKey(Key key, long timestamp, KeyEventQueue queue) {
+        if (key != null) {
+            queue.offer(new KeyEvent(key, '\0', timestamp));
+        }
+    }
+
+    /**
+     * @return the key of a sequence ending with a letter, or null if it's unknown.
+     */
+    private Key toSingleShiftKey(int b) {
+        switch (b) {
+            case 'A':
+                return Key.UP;
+            case 'B':
+                return Key.DOWN;
+            case 'C':
+                return Key.RIGHT;
+            case 'D':
+                return Key.LEFT;
+            case 'H':
+                return Key.HOME;
+            case 'F':
+                return Key.END;
+            case 'P':
+                return Key.F1;
+            case 'Q':
+                return Key.F2;
+            case 'R':
+                return Key.F3;
+            case 'S':
+                return Key.F4;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @return the key of a sequence ending with '~', or null if it's unknown.
+     */
+    private Key toTildeKey(int number) {
+        switch (number) {
+            case 1:
+            case 7:
+                return Key.HOME;
+            case 2:
+                return Key.INSERT;
+            case 3:
+                return Key.DELETE;
+            case 4:
+            case 8:
+                return Key.END;
+            case 5:
+                return Key.PAGE_UP;
+            case 6:
+                return Key.PAGE_DOWN;
+            case 11:
+                return Key.F1;
+            case 12:
+                return Key.F2;
+            case 13:
+                return Key.F3;
+            case 14:
+                return Key.F4;
+            case 15:
+                return Key.F5;
+            case 17:
+                return Key.F6;
+            case 18:
+                return Key.F7;
+            case 19:
+                return Key.F8;
+            case 20:
+                return Key.F9;
+            case 21:
+                return Key.F10;
+            case 23:
+                return Key.F11;
+            case 24:
+                return Key.F12;
+            default:
+                return null;
+        }
+    }
+}
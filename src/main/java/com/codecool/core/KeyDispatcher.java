@@ -0,0 +1,122 @@
+package com.codecool.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calls the key handlers registered for the keys pressed.
+ * <p>
+ * The handlers are looked up in arrays indexed by the key
+ * and by the ASCII character, so only the handlers of the pressed keys
+ * are touched no matter how many are registered.
+ */
+
+class KeyDispatcher {
+
+    /**
+     * The number of characters which are looked up in {@link #characterHandlers}.
+     */
+    private static final int ASCII_SIZE = 128;
+
+    /**
+     * The handlers of each key, indexed by {@link Key#ordinal()}.
+     */
+    private final List<List<KeyHandler>> keyHandlers = newHandlerTable(Key.values().length);
+
+    /**
+     * The handlers of each character, indexed by the ASCII characters.
+     */
+    private final List<List<KeyHandler>> characterHandlers = newHandlerTable(ASCII_SIZE);
+
+    /**
+     * The handlers of the non ASCII characters.
+     */
+    private final Map<Character, List<KeyHandler>> otherCharacterHandlers = new HashMap<>();
+
+    /**
+     * @param size the number of keys or characters.
+     * @return a table with an empty list of handlers for each of them.
+     */
+    private static List<List<KeyHandler>> newHandlerTable(int size) {
+        List<List<KeyHandler>> table = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            table.add(new ArrayList<>());
+        }
+        return table;
+    }
+
+    /**
+     * @param key     the handler is called for
+     * @param handler that will be added
+     */
+    void addHandler(Key key, KeyHandler handler) {
+        keyHandlers.get(key.ordinal()).add(handler);
+    }
+
+    /**
+     * @param character the handler is called for
+     * @param handler   that will be added
+     */
+    void addHandler(char character, KeyHandler handler) {
+        if (character >= ASCII_SIZE) {
+            otherCharacterHandlers.computeIfAbsent(character, c -> new ArrayList<>()).add(handler);
+            return;
+        }
+        characterHandlers.get(character).add(handler);
+    }
+
+    /**
+     * @param key     the handler was added for
+     * @param handler that will be removed
+     */
+    void removeHandler(Key key, KeyHandler handler) {
+        keyHandlers.get(key.ordinal()).remove(handler);
+    }
+
+    /**
+     * @param character the handler was added for
+     * @param handler   that will be removed
+     */
+    void removeHandler(char character, KeyHandler handler) {
+        List<KeyHandler> handlers = character < ASCII_SIZE
+                ? characterHandlers.get(character)
+                : otherCharacterHandlers.get(character);
+        if (handlers != null) {
+            handlers.remove(handler);
+        }
+    }
+
+    /**
+     * Calls the handlers of every key event in order,
+     * first the ones added for the key then the ones added for its character.
+     *
+     * @param events of the keys pressed
+     */
+    void dispatch(List<KeyEvent> events) {
+        for (int i = 0; i < events.size(); i++) {
+            KeyEvent event = events.get(i);
+            call(keyHandlers.get(event.getKey().ordinal()), event);
+
+            char character = event.getCharacter();
+            if (character == '\0') {
+                continue;
+            }
+            if (character < ASCII_SIZE) {
+                call(characterHandlers.get(character), event);
+            } else if (!otherCharacterHandlers.isEmpty()) {
+                call(otherCharacterHandlers.get(character), event);
+            }
+        }
+    }
+
+    private void call(List<KeyHandler> handlers, KeyEvent event) {
+        if (handlers == null) {
+            return;
+        }
+        for (int i = 0; i < handlers.size(); i++) {
+            handlers.get(i).onKey(event);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.codecool.core;
+
+/**
+ * Represents a key pressed in the terminal.
+ */
+
+public class KeyEvent {
+
+    /**
+     * The key which was pressed.
+     */
+    private final Key key;
+
+    /**
+     * The character of the key, '\0' if it has none, e.g. for the arrows.
+     */
+    private final char character;
+
+    /**
+     * The {@link System#nanoTime()} when the key was read.
+     */
+    private final long timestamp;
+
+    /**
+     * Constructs a KeyEvent with the specified params.
+     *
+     * @param key       the key which was pressed.
+     * @param character the character of the key, '\0' if it has none.
+     * @param timestamp the {@link System#nanoTime()} when the key was read.
+     */
+    public KeyEvent(Key key, char character, long timestamp) {
+        this.key = key;
+        this.character = character;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * @return the key which was pressed.
+     */
+    public Key getKey() {
+        return this.key;
+    }
+
+    /**
+     * @return the character of the key, '\0' if it has none.
+     */
+    public char getCharacter() {
+        return this.character;
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} when the key was read.
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+}
@@ -0,0 +1,94 @@
+package com.codecool.core;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free ring buffer of key events
+ * for exactly one producer and one consumer thread.
+ * <p>
+ * When it's full, the new events are dropped.
+ */
+
+class KeyEventQueue {
+
+    /**
+     * The events, its length is a power of two.
+     */
+    private final KeyEvent[] events;
+
+    /**
+     * Turns a sequence number into an index of {@link #events}.
+     */
+    private final int mask;
+
+    /**
+     * The sequence number of the next event to be taken, written by the consumer.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * The sequence number of the next event to be put, written by the producer.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Constructs a KeyEventQueue with at least the specified capacity.
+     *
+     * @param capacity the number of events it can hold, rounded up to a power of two.
+     */
+    KeyEventQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.events = new KeyEvent[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Puts an event at the end of the queue, called by the producer.
+     *
+     * @param event that will be put
+     * @return false if the queue was full and the event was dropped.
+     */
+    boolean offer(KeyEvent event) {
+        long currentTail = tail.get();
+        if (currentTail - head.get() == events.length) {
+            return false;
+        }
+        events[(int) currentTail & mask] = event;
+        tail.lazySet(currentTail + 1);
+        return true;
+    }
+
+    /**
+     * Takes the first event of the queue, called by the consumer.
+     *
+     * @return the first event, or null if the queue is empty.
+     */
+    KeyEvent poll() {
+        long currentHead = head.get();
+        if (currentHead == tail.get()) {
+            return null;
+        }
+        int index = (int) currentHead & mask;
+        KeyEvent event = events[index];
+        events[index] = null;
+        head.lazySet(currentHead + 1);
+        return event;
+    }
+
+    /**
+     * Takes every event of the queue at once, called by the consumer.
+     *
+     * @param result where the events are added in order.
+     */
+    void drainTo(List<KeyEvent> result) {
+        long currentHead = head.get();
+        long currentTail = tail.get();
+        for (long i = currentHead; i < currentTail; i++) {
+            int index = (int) i & mask;
+            result.add(events[index]);
+            events[index] = null;
+        }
+        head.lazySet(currentTail);
+    }
+}
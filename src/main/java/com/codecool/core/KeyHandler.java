@@ -0,0 +1,19 @@
+package com.codecool.core;
+
+/**
+ * Handles a key pressed, it can be registered
+ * with {@link App#addKeyHandler(Key, KeyHandler)}
+ * or {@link App#addKeyHandler(char, KeyHandler)}.
+ */
+
+@FunctionalInterface
+public interface KeyHandler {
+
+    /**
+     * Called before the app objects are updated,
+     * once for every time the key was pressed.
+     *
+     * @param event of the key pressed
+     */
+    void onKey(KeyEvent event);
+}
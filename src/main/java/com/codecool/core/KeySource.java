@@ -0,0 +1,18 @@
+package com.codecool.core;
+
+import java.util.List;
+
+/**
+ * Provides the key events captured by {@link InputSnapshot} before every update,
+ * it's either the terminal or a scripted timeline.
+ */
+
+interface KeySource {
+
+    /**
+     * Takes every key event since the last call at once.
+     *
+     * @param events where the key events are added in the order they were pressed.
+     */
+    void drainEvents(List<KeyEvent> events);
+}
@@ -0,0 +1,160 @@
+package com.codecool.core;
+
+import java.util.Arrays;
+
+/**
+ * Counts durations in log-linear buckets, like an HDR histogram.
+ * <p>
+ * Every power of two is split into {@link #SUB_BUCKET_COUNT} buckets,
+ * so a percentile is at most about 6% off, from one nanosecond up to
+ * {@link Long#MAX_VALUE}, in a fixed array. Recording allocates nothing.
+ * <br>
+ * It is recorded by one thread, reading it from another one may see a partial update.
+ */
+
+public class LatencyHistogram {
+
+    /**
+     * The number of bits of a value kept below its highest one bit.
+     */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /**
+     * The number of buckets a power of two is split into.
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The values below it have a bucket each.
+     */
+    private static final int LINEAR_LIMIT = SUB_BUCKET_COUNT * 2;
+
+    /**
+     * The number of values recorded in each bucket.
+     */
+    private final long[] counts = new long[(64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT];
+
+    /**
+     * The number of values recorded.
+     */
+    private long totalCount;
+
+    /**
+     * The sum of the values recorded.
+     */
+    private long totalValue;
+
+    /**
+     * The smallest value recorded.
+     */
+    private long min = Long.MAX_VALUE;
+
+    /**
+     * The largest value recorded.
+     */
+    private long max;
+
+    /**
+     * Records a value, negative ones are counted as 0.
+     *
+     * @param value e.g. a duration in nanoseconds
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[getBucketIndex(value)]++;
+        totalCount++;
+        totalValue += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Forgets every value recorded.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        totalValue = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    /**
+     * @return the number of values recorded.
+     */
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return the smallest value recorded, 0 if there is none.
+     */
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    /**
+     * @return the largest value recorded, 0 if there is none.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * @return the average of the values recorded, 0 if there is none.
+     */
+    public long getMean() {
+        return totalCount == 0 ? 0 : totalValue / totalCount;
+    }
+
+    /**
+     * @param percentile between 0 and 100, e.g. 99 for the p99
+     * @return the value which the given percent of the values are not larger than,
+     * rounded up to the end of its bucket, 0 if there is none.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, getBucketEnd(i));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return the index of the bucket which counts the value.
+     */
+    static int getBucketIndex(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKET_COUNT;
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * @return the largest value counted by the bucket.
+     */
+    static long getBucketEnd(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,22 @@
+package com.codecool.core;
+
+import com.codecool.core.buffer.BufferListener;
+
+/**
+ * Lets the app objects know when
+ * they were added to or removed from the app
+ * by calling {@link AppObject#onAdded()} and {@link AppObject#onRemoved()}.
+ */
+
+class LifecycleNotifier implements BufferListener<AppObject> {
+
+    @Override
+    public void onAdded(AppObject appObject) {
+        appObject.onAdded();
+    }
+
+    @Override
+    public void onRemoved(AppObject appObject) {
+        appObject.onRemoved();
+    }
+}
@@ -0,0 +1,100 @@
+package com.codecool.core;
+
+/**
+ * Shows the metrics of the app in the top row of the screen,
+ * it's added by {@link App#setMetricsOverlay(boolean)}.
+ * <p>
+ * The text is written into its render symbols in place, digit by digit,
+ * so refreshing it allocates nothing.
+ */
+
+class MetricsOverlay extends AppObject {
+
+    /**
+     * The number of ticks between two refreshes, so the numbers can be read.
+     */
+    private static final int REFRESH_INTERVAL = 10;
+
+    private static final long NANOS_PER_MICRO = 1_000L;
+
+    /**
+     * Where the metrics are read from.
+     */
+    private final FrameMetrics metrics;
+
+    /**
+     * The only row of the render symbols.
+     */
+    private final char[] row;
+
+    /**
+     * The next column written in {@link #row}.
+     */
+    private int column;
+
+    /**
+     * Counts the ticks until the next refresh.
+     */
+    private int ticksSinceRefresh = REFRESH_INTERVAL;
+
+    /**
+     * Constructs a MetricsOverlay as wide as the screen of the app.
+     *
+     * @param app     a reference of the host.
+     * @param metrics where the metrics are read from.
+     */
+    MetricsOverlay(App app, FrameMetrics metrics) {
+        super(0, 0, new char[1][app.getScreenWidth()], app);
+        this.metrics = metrics;
+        this.row = this.renderSymbols[0];
+        setTagName("metricsOverlay");
+    }
+
+    /**
+     * Refreshes the text every {@link #REFRESH_INTERVAL} ticks.
+     */
+    @Override
+    public void update() {
+        if (++ticksSinceRefresh < REFRESH_INTERVAL) {
+            return;
+        }
+        ticksSinceRefresh = 0;
+
+        LatencyHistogram loop = metrics.getLoopHistogram();
+        column = 0;
+        write("loop p50 ");
+        write(loop.getValueAtPercentile(50) / NANOS_PER_MICRO);
+        write("us p99 ");
+        write(loop.getValueAtPercentile(99) / NANOS_PER_MICRO);
+        write("us max ");
+        write(loop.getMax() / NANOS_PER_MICRO);
+        write("us | draw p99 ");
+        write(metrics.getHistogram(FramePhase.COMPOSE).getValueAtPercentile(99) / NANOS_PER_MICRO);
+        write("us write p99 ");
+        write(metrics.getHistogram(FramePhase.WRITE).getValueAtPercentile(99) / NANOS_PER_MICRO);
+        write("us | frames ");
+        write(metrics.getFrameCount());
+        write(" dropped ");
+        write(metrics.getDroppedFrameCount());
+        while (column < row.length) {
+            row[column++] = ' ';
+        }
+        markDirty();
+    }
+
+    private void write(String text) {
+        for (int i = 0; i < text.length() && column < row.length; i++) {
+            row[column++] = text.charAt(i);
+        }
+    }
+
+    private void write(long number) {
+        long divisor = 1;
+        while (number / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0 && column < row.length; divisor /= 10) {
+            row[column++] = (char) ('0' + number / divisor % 10);
+        }
+    }
+}
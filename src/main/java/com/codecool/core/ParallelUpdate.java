@@ -0,0 +1,61 @@
+package com.codecool.core;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Updates a range of app objects on a ForkJoinPool,
+ * by splitting it in halves until the ranges
+ * are small enough to be updated on one thread.
+ */
+
+class ParallelUpdate extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The most app objects updated by one task without splitting.
+     */
+    private static final int MAX_RANGE_SIZE = 512;
+
+    /**
+     * The app objects which can be updated in parallel.
+     */
+    private final List<AppObject> appObjects;
+
+    /**
+     * The index of the first app object of the range.
+     */
+    private final int from;
+
+    /**
+     * The index after the last app object of the range.
+     */
+    private final int to;
+
+    /**
+     * Constructs a ParallelUpdate of the specified range.
+     *
+     * @param appObjects which can be updated in parallel.
+     * @param from       the index of the first app object of the range.
+     * @param to         the index after the last app object of the range.
+     */
+    ParallelUpdate(List<AppObject> appObjects, int from, int to) {
+        this.appObjects = appObjects;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= MAX_RANGE_SIZE) {
+            for (int i = from; i < to; i++) {
+                appObjects.get(i).update();
+            }
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        invokeAll(new ParallelUpdate(appObjects, from, middle), new ParallelUpdate(appObjects, middle, to));
+    }
+}
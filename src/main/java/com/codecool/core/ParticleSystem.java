@@ -0,0 +1,252 @@
+package com.codecool.core;
+
+import com.codecool.core.render.Canvas;
+
+/**
+ * Moves and draws many small particles as one app object,
+ * e.g. for explosions, rain or a starfield.
+ * <p>
+ * The particles are not objects, their positions, velocities, lifetimes and
+ * characters are kept in parallel arrays of a fixed capacity. They are moved
+ * in one loop in {@link #update()} and written straight to the canvas in
+ * {@link #render(Canvas)}, so neither allocates anything.
+ * <p>
+ * The position of the system is the upper left corner of the bounds of its particles,
+ * the particles themselves are emitted at screen coordinates.
+ */
+
+public class ParticleSystem extends AppObject {
+
+    /**
+     * The x coordinates of the particles.
+     */
+    private final float[] particleX;
+
+    /**
+     * The y coordinates of the particles.
+     */
+    private final float[] particleY;
+
+    /**
+     * The cells the particles move horizontally in a tick.
+     */
+    private final float[] velocityX;
+
+    /**
+     * The cells the particles move vertically in a tick.
+     */
+    private final float[] velocityY;
+
+    /**
+     * The ticks left until the particles disappear.
+     */
+    private final int[] lifetimes;
+
+    /**
+     * The characters of the particles.
+     */
+    private final char[] glyphs;
+
+    /**
+     * The number of particles alive, they are the first ones in the arrays.
+     */
+    private int particleCount;
+
+    /**
+     * Added to the horizontal velocity of every particle in every tick.
+     */
+    private float gravityX;
+
+    /**
+     * Added to the vertical velocity of every particle in every tick.
+     */
+    private float gravityY;
+
+    /**
+     * The columns and rows the particles were in after the last update or emit,
+     * the bounds are empty if the right is not larger than the left.
+     */
+    private int boundsRight;
+
+    private int boundsBottom;
+
+    /**
+     * Constructs an empty ParticleSystem.
+     *
+     * @param capacity the most particles alive at the same time.
+     * @param app      a reference of the host.
+     */
+    public ParticleSystem(int capacity, App app) {
+        super(0, 0, null, app);
+        this.particleX = new float[capacity];
+        this.particleY = new float[capacity];
+        this.velocityX = new float[capacity];
+        this.velocityY = new float[capacity];
+        this.lifetimes = new int[capacity];
+        this.glyphs = new char[capacity];
+    }
+
+    /**
+     * Adds a particle, it's dropped if the system is full.
+     *
+     * @param xPos      x coordinate of the particle on the screen.
+     * @param yPos      y coordinate of the particle on the screen.
+     * @param velocityX the cells the particle moves horizontally in a tick.
+     * @param velocityY the cells the particle moves vertically in a tick.
+     * @param lifetime  the number of ticks until the particle disappears.
+     * @param glyph     the character of the particle.
+     * @return false if the system was full.
+     */
+    public boolean emit(float xPos, float yPos, float velocityX, float velocityY, int lifetime, char glyph) {
+        if (particleCount == glyphs.length || lifetime <= 0) {
+            return false;
+        }
+
+        int i = particleCount++;
+        this.particleX[i] = xPos;
+        this.particleY[i] = yPos;
+        this.velocityX[i] = velocityX;
+        this.velocityY[i] = velocityY;
+        this.lifetimes[i] = lifetime;
+        this.glyphs[i] = glyph;
+        int column = (int) Math.floor(xPos);
+        int row = (int) Math.floor(yPos);
+        if (particleCount == 1) {
+            setBounds(column, row, column + 1, row + 1);
+        } else {
+            setBounds(Math.min(this.xPos, column), Math.min(this.yPos, row),
+                    Math.max(boundsRight, column + 1), Math.max(boundsBottom, row + 1));
+        }
+        return true;
+    }
+
+    /**
+     * Ages and moves every particle, the ones whose lifetime is over are replaced by the last one.
+     */
+    @Override
+    public void update() {
+        if (particleCount == 0) {
+            return;
+        }
+
+        int left = Integer.MAX_VALUE;
+        int top = Integer.MAX_VALUE;
+        int right = Integer.MIN_VALUE;
+        int bottom = Integer.MIN_VALUE;
+        int i = 0;
+        while (i < particleCount) {
+            if (--lifetimes[i] <= 0) {
+                int last = --particleCount;
+                particleX[i] = particleX[last];
+                particleY[i] = particleY[last];
+                velocityX[i] = velocityX[last];
+                velocityY[i] = velocityY[last];
+                lifetimes[i] = lifetimes[last];
+                glyphs[i] = glyphs[last];
+                continue;
+            }
+
+            float vx = velocityX[i] += gravityX;
+            float vy = velocityY[i] += gravityY;
+            int column = (int) Math.floor(particleX[i] += vx);
+            int row = (int) Math.floor(particleY[i] += vy);
+            left = Math.min(left, column);
+            top = Math.min(top, row);
+            right = Math.max(right, column);
+            bottom = Math.max(bottom, row);
+            i++;
+        }
+
+        if (particleCount == 0) {
+            setBounds(this.xPos, this.yPos, this.xPos, this.yPos);
+        } else {
+            setBounds(left, top, right + 1, bottom + 1);
+        }
+    }
+
+    /**
+     * Writes the character of every particle to its cell.
+     *
+     * @param canvas where the particles will be drawn.
+     */
+    @Override
+    public void render(Canvas canvas) {
+        for (int i = 0; i < particleCount; i++) {
+            float xPos = particleX[i];
+            float yPos = particleY[i];
+            if (xPos >= 0 && yPos >= 0) {
+                canvas.drawCharacter((int) xPos, (int) yPos, glyphs[i]);
+            }
+        }
+    }
+
+    /**
+     * The particles are independent of the other objects.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean isParallelSafe() {
+        return true;
+    }
+
+    /**
+     * Sets an acceleration applied to every particle, e.g. to make them fall.
+     *
+     * @param gravityX added to the horizontal velocity of the particles in every tick.
+     * @param gravityY added to the vertical velocity of the particles in every tick.
+     */
+    public void setGravity(float gravityX, float gravityY) {
+        this.gravityX = gravityX;
+        this.gravityY = gravityY;
+    }
+
+    /**
+     * Removes every particle.
+     */
+    public void clear() {
+        particleCount = 0;
+        setBounds(this.xPos, this.yPos, this.xPos, this.yPos);
+    }
+
+    /**
+     * @return the number of particles alive.
+     */
+    public int getParticleCount() {
+        return this.particleCount;
+    }
+
+    /**
+     * @return the most particles alive at the same time.
+     */
+    public int getCapacity() {
+        return this.glyphs.length;
+    }
+
+    /**
+     * @return the number of columns the particles span.
+     */
+    @Override
+    public int getRenderWidth() {
+        return this.boundsRight - this.xPos;
+    }
+
+    /**
+     * @return the number of rows the particles span.
+     */
+    @Override
+    public int getRenderHeight() {
+        return this.boundsBottom - this.yPos;
+    }
+
+    /**
+     * Moves the system to the bounds of its particles
+     * and lets the view know that it has to be drawn again.
+     */
+    private void setBounds(int left, int top, int right, int bottom) {
+        setPosition(left, top);
+        this.boundsRight = right;
+        this.boundsBottom = bottom;
+        markDirty();
+    }
+}
@@ -0,0 +1,60 @@
+package com.codecool.core;
+
+import com.codecool.core.buffer.BufferListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Puts the removed app objects back to the pool of their class,
+ * it's notified after {@link LifecycleNotifier}, so an object is reset
+ * only after {@link AppObject#onRemoved()} was called.
+ */
+
+class PoolRecycler implements BufferListener<AppObject> {
+
+    /**
+     * The pools by the exact class of their objects.
+     */
+    private final Map<Class<?>, AppObjectPool<?>> pools = new HashMap<>();
+
+    /**
+     * @param type the class of the objects in the pool.
+     * @param pool where the removed objects of the class are put.
+     */
+    void addPool(Class<?> type, AppObjectPool<?> pool) {
+        pools.put(type, pool);
+    }
+
+    /**
+     * @param type the class of the objects which won't be pooled anymore.
+     */
+    void removePool(Class<?> type) {
+        pools.remove(type);
+    }
+
+    /**
+     * @param type the class of the objects in the pool.
+     * @return the pool of the class, null if there is none.
+     */
+    AppObjectPool<?> getPool(Class<?> type) {
+        return pools.get(type);
+    }
+
+    @Override
+    public void onAdded(AppObject appObject) {
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onRemoved(AppObject appObject) {
+        if (pools.isEmpty()) {
+            return;
+        }
+
+        AppObjectPool<AppObject> pool = (AppObjectPool<AppObject>) pools.get(appObject.getClass());
+        if (pool != null) {
+            pool.release(appObject);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.codecool.core;
+
+/**
+ * The result of {@link App#simulate(int, InputScript)},
+ * the time the whole run took and the distribution of the frame times,
+ * to compare the performance of two builds on the same workload.
+ */
+
+public class SimulationReport {
+
+    /**
+     * The number of frames run.
+     */
+    private final int frameCount;
+
+    /**
+     * The time of the whole run in nanoseconds.
+     */
+    private final long wallTime;
+
+    /**
+     * The time of each frame, the update and the render, in nanoseconds.
+     */
+    private final LatencyHistogram frameTimes;
+
+    /**
+     * Constructs a SimulationReport with the specified params.
+     *
+     * @param frameCount the number of frames run.
+     * @param wallTime   the time of the whole run in nanoseconds.
+     * @param frameTimes the time of each frame in nanoseconds.
+     */
+    SimulationReport(int frameCount, long wallTime, LatencyHistogram frameTimes) {
+        this.frameCount = frameCount;
+        this.wallTime = wallTime;
+        this.frameTimes = frameTimes;
+    }
+
+    /**
+     * It's less than the frames asked for if the app stopped itself.
+     *
+     * @return the number of frames run.
+     */
+    public int getFrameCount() {
+        return this.frameCount;
+    }
+
+    /**
+     * @return the time of the whole run in nanoseconds.
+     */
+    public long getWallTime() {
+        return this.wallTime;
+    }
+
+    /**
+     * @return the time of each frame, the update and the render, in nanoseconds.
+     */
+    public LatencyHistogram getFrameTimes() {
+        return this.frameTimes;
+    }
+
+    /**
+     * @return the frames run in a second.
+     */
+    public double getFramesPerSecond() {
+        return wallTime == 0 ? 0 : frameCount * 1_000_000_000.0 / wallTime;
+    }
+
+    /**
+     * @return the numbers of the report in one line, the times in microseconds.
+     */
+    @Override
+    public String toString() {
+        return String.format("frames=%d wall=%.1fms fps=%.0f mean=%dus p50=%dus p99=%dus max=%dus",
+                frameCount, wallTime / 1_000_000.0, getFramesPerSecond(),
+                frameTimes.getMean() / 1000, frameTimes.getValueAtPercentile(50) / 1000,
+                frameTimes.getValueAtPercentile(99) / 1000, frameTimes.getMax() / 1000);
+    }
+}
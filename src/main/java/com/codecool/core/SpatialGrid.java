@@ -0,0 +1,478 @@
+package com.codecool.core;
+
+import com.codecool.core.buffer.BufferListener;
+import com.codecool.core.render.RegionIndex;
+import com.codecool.core.render.RenderData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Indexes the app objects of App by their position
+ * in a uniform grid of square cells.
+ * <p>
+ * The bounds of an object are given by {@link AppObject#xPos}, {@link AppObject#yPos}
+ * and the size of {@link AppObject#renderSymbols}, or by {@link AppObject#getRenderData()}
+ * if a subclass draws by it, and it is kept in every cell it overlaps.
+ * Objects outside of the grid are kept in the nearest cells at the edge.
+ * <p>
+ * It's kept up to date by the Buffer of the app objects,
+ * and by {@link #refresh()} after the app objects have moved.
+ * <p>
+ * The queries change nothing shared, so they can be made from several
+ * threads at the same time, e.g. by app objects updated in parallel.
+ * They mark the matching entries in a bitmap indexed by the order of the entries,
+ * so the objects are found in the order they were added without sorting them.
+ */
+
+class SpatialGrid implements BufferListener<AppObject>, RegionIndex<AppObject> {
+
+    /**
+     * The width and height of a cell.
+     */
+    private final int cellSize;
+
+    /**
+     * The number of cell columns.
+     */
+    private final int columns;
+
+    /**
+     * The number of cell rows.
+     */
+    private final int rows;
+
+    /**
+     * The entries overlapping each cell, indexed by row * {@link #columns} + column.
+     */
+    private final List<List<Entry>> cells;
+
+    /**
+     * The entry of every indexed object.
+     */
+    private Map<AppObject, Entry> entries = new IdentityHashMap<>();
+
+    /**
+     * Every entry in the order their objects were added, the removed ones are null
+     * until the list is compacted.
+     */
+    private List<Entry> entryList = new ArrayList<>();
+
+    /**
+     * The number of nulls in {@link #entryList}.
+     */
+    private int removedCount;
+
+    /**
+     * Reused by the queries of each thread to mark the matching entries.
+     */
+    private final ThreadLocal<Matches> matches = ThreadLocal.withInitial(Matches::new);
+
+    /**
+     * Constructs a SpatialGrid which covers the specified area.
+     *
+     * @param width    the width of the covered area.
+     * @param height   the height of the covered area.
+     * @param cellSize the width and height of a cell.
+     */
+    SpatialGrid(int width, int height, int cellSize) {
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (width + cellSize - 1) / cellSize);
+        this.rows = Math.max(1, (height + cellSize - 1) / cellSize);
+        this.cells = new ArrayList<>(columns * rows);
+        for (int i = 0; i < columns * rows; i++) {
+            cells.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Puts the app object in the cells it overlaps.
+     *
+     * @param appObject that was added to the app
+     */
+    @Override
+    public void onAdded(AppObject appObject) {
+        Entry entry = new Entry(appObject);
+        entry.updateBounds();
+        entries.put(appObject, entry);
+        entry.order = entryList.size();
+        entryList.add(entry);
+        addToCells(entry);
+    }
+
+    /**
+     * Takes the app object out of its cells, and compacts {@link #entryList}
+     * once half of it is removed entries.
+     *
+     * @param appObject that was removed from the app
+     */
+    @Override
+    public void onRemoved(AppObject appObject) {
+        Entry entry = entries.remove(appObject);
+        if (entry == null) {
+            return;
+        }
+
+        entryList.set(entry.order, null);
+        removeFromCells(entry);
+        if (++removedCount > entryList.size() / 2) {
+            compact();
+        }
+    }
+
+    /**
+     * Moves the app objects which changed their bounds
+     * since the last refresh to the cells they overlap now.
+     */
+    void refresh() {
+        for (int i = 0; i < entryList.size(); i++) {
+            Entry entry = entryList.get(i);
+            if (entry == null || !entry.updateBounds()) {
+                continue;
+            }
+
+            if (entry.minColumn != toColumn(entry.xPos)
+                    || entry.minRow != toRow(entry.yPos)
+                    || entry.maxColumn != toColumn(entry.xPos + entry.width - 1)
+                    || entry.maxRow != toRow(entry.yPos + entry.height - 1)) {
+                removeFromCells(entry);
+                addToCells(entry);
+            }
+        }
+    }
+
+    @Override
+    public void queryRegion(int xPos, int yPos, int width, int height, List<AppObject> result) {
+        Matches matches = this.matches.get();
+        matches.reset(entryList.size());
+        collectMatches(xPos, yPos, width, height, matches);
+        if (matches.maxOrder < 0) {
+            return;
+        }
+
+        long[] bits = matches.bits;
+        for (int word = matches.minOrder >>> 6; word <= matches.maxOrder >>> 6; word++) {
+            long remaining = bits[word];
+            bits[word] = 0;
+            while (remaining != 0) {
+                int order = (word << 6) + Long.numberOfTrailingZeros(remaining);
+                result.add(entryList.get(order).appObject);
+                remaining &= remaining - 1;
+            }
+        }
+    }
+
+    /**
+     * @param xPos   x coordinate of the upper left corner of the region.
+     * @param yPos   y coordinate of the upper left corner of the region.
+     * @param width  the width of the region.
+     * @param height the height of the region.
+     * @return the app objects overlapping the region, in the order they were added.
+     */
+    List<AppObject> queryRegion(int xPos, int yPos, int width, int height) {
+        List<AppObject> result = new ArrayList<>();
+        queryRegion(xPos, yPos, width, height, result);
+        return result;
+    }
+
+    /**
+     * @param xPos x coordinate of the position.
+     * @param yPos y coordinate of the position.
+     * @return the app objects covering the position, in the order they were added.
+     */
+    List<AppObject> objectsAt(int xPos, int yPos) {
+        return queryRegion(xPos, yPos, 1, 1);
+    }
+
+    /**
+     * Searches the cells in growing rings around the position,
+     * until no closer object can be found. The objects in more than one cell
+     * are remembered in a set of the call, so the filter sees them once.
+     *
+     * @param xPos   x coordinate of the position.
+     * @param yPos   y coordinate of the position.
+     * @param filter which app objects can be found.
+     * @return the app object closest to the position, or null if there isn't any.
+     */
+    AppObject findNearest(int xPos, int yPos, Predicate<AppObject> filter) {
+        int column = toColumn(xPos);
+        int row = toRow(yPos);
+        int maxRing = Math.max(columns, rows);
+        Set<Entry> visited = null;
+
+        Entry nearest = null;
+        long nearestDistance = Long.MAX_VALUE;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            long ringDistance = (long) Math.max(0, ring - 1) * cellSize;
+            if (nearest != null && ringDistance * ringDistance > nearestDistance) {
+                break;
+            }
+
+            for (int r = row - ring; r <= row + ring; r++) {
+                boolean isEdgeRow = r == row - ring || r == row + ring;
+                int step = isEdgeRow ? 1 : 2 * ring;
+                for (int c = column - ring; c <= column + ring; c += step) {
+                    if (r < 0 || r >= rows || c < 0 || c >= columns) {
+                        continue;
+                    }
+
+                    List<Entry> cell = cells.get(r * columns + c);
+                    for (int i = 0; i < cell.size(); i++) {
+                        Entry entry = cell.get(i);
+                        if (entry.minColumn != entry.maxColumn || entry.minRow != entry.maxRow) {
+                            if (visited == null) {
+                                visited = Collections.newSetFromMap(new IdentityHashMap<>());
+                            }
+                            if (!visited.add(entry)) {
+                                continue;
+                            }
+                        }
+
+                        long distance = entry.getSquaredDistance(xPos, yPos);
+                        if (distance < nearestDistance && filter.test(entry.appObject)) {
+                            nearest = entry;
+                            nearestDistance = distance;
+                        }
+                    }
+                }
+            }
+        }
+        return nearest == null ? null : nearest.appObject;
+    }
+
+    /**
+     * Marks the entries overlapping the region.
+     * An entry in several cells is checked only in the first cell
+     * where its cells and the cells of the region meet.
+     */
+    private void collectMatches(int xPos, int yPos, int width, int height, Matches matches) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        int minColumn = toColumn(xPos);
+        int minRow = toRow(yPos);
+        int maxColumn = toColumn(xPos + width - 1);
+        int maxRow = toRow(yPos + height - 1);
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minColumn; c <= maxColumn; c++) {
+                List<Entry> cell = cells.get(r * columns + c);
+                for (int i = 0; i < cell.size(); i++) {
+                    Entry entry = cell.get(i);
+                    if (r == Math.max(minRow, entry.minRow) && c == Math.max(minColumn, entry.minColumn)
+                            && entry.overlaps(xPos, yPos, width, height)) {
+                        matches.mark(entry.order);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Puts the entry at the end of the cells it overlaps,
+     * and remembers its slot in each of them.
+     */
+    private void addToCells(Entry entry) {
+        entry.minColumn = toColumn(entry.xPos);
+        entry.minRow = toRow(entry.yPos);
+        entry.maxColumn = toColumn(entry.xPos + entry.width - 1);
+        entry.maxRow = toRow(entry.yPos + entry.height - 1);
+        int cellCount = (entry.maxColumn - entry.minColumn + 1) * (entry.maxRow - entry.minRow + 1);
+        if (entry.cellSlots.length < cellCount) {
+            entry.cellSlots = new int[cellCount];
+        }
+        for (int r = entry.minRow; r <= entry.maxRow; r++) {
+            for (int c = entry.minColumn; c <= entry.maxColumn; c++) {
+                List<Entry> cell = cells.get(r * columns + c);
+                entry.cellSlots[entry.getSlotIndex(r, c)] = cell.size();
+                cell.add(entry);
+            }
+        }
+    }
+
+    /**
+     * Takes the entry out of its cells by moving the last entry of each cell to its slot.
+     */
+    private void removeFromCells(Entry entry) {
+        for (int r = entry.minRow; r <= entry.maxRow; r++) {
+            for (int c = entry.minColumn; c <= entry.maxColumn; c++) {
+                List<Entry> cell = cells.get(r * columns + c);
+                int slot = entry.cellSlots[entry.getSlotIndex(r, c)];
+                Entry last = cell.remove(cell.size() - 1);
+                if (last != entry) {
+                    cell.set(slot, last);
+                    last.cellSlots[last.getSlotIndex(r, c)] = slot;
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the removed entries from {@link #entryList}, the others keep their order.
+     */
+    private void compact() {
+        int count = 0;
+        for (int i = 0; i < entryList.size(); i++) {
+            Entry entry = entryList.get(i);
+            if (entry != null) {
+                entry.order = count;
+                entryList.set(count++, entry);
+            }
+        }
+        while (entryList.size() > count) {
+            entryList.remove(entryList.size() - 1);
+        }
+        removedCount = 0;
+    }
+
+    /**
+     * @return the column of the x coordinate, clamped to the grid.
+     */
+    private int toColumn(int xPos) {
+        return Math.min(columns - 1, Math.max(0, Math.floorDiv(xPos, cellSize)));
+    }
+
+    /**
+     * @return the row of the y coordinate, clamped to the grid.
+     */
+    private int toRow(int yPos) {
+        return Math.min(rows - 1, Math.max(0, Math.floorDiv(yPos, cellSize)));
+    }
+
+    /**
+     * Holds an indexed app object with the bounds and cells it's indexed by.
+     */
+    private static class Entry {
+
+        private final AppObject appObject;
+
+        /**
+         * The index of the entry in {@link #entryList}.
+         */
+        private int order;
+
+        /**
+         * The index of the entry in each of its cells, row by row.
+         */
+        private int[] cellSlots = new int[1];
+
+        private int xPos;
+
+        private int yPos;
+
+        private int width;
+
+        private int height;
+
+        private int minColumn;
+
+        private int minRow;
+
+        private int maxColumn;
+
+        private int maxRow;
+
+        Entry(AppObject appObject) {
+            this.appObject = appObject;
+        }
+
+        /**
+         * Reads the current bounds of the app object, from its render data
+         * if it's drawn by that, an object without symbols takes up one cell.
+         *
+         * @return true if the bounds have changed.
+         */
+        boolean updateBounds() {
+            int newX = appObject.xPos;
+            int newY = appObject.yPos;
+            int newWidth;
+            int newHeight;
+            if (appObject.isDrawnByRenderData()) {
+                RenderData renderData = appObject.getRenderData();
+                newX = renderData.xPos;
+                newY = renderData.yPos;
+                newWidth = getLongestRow(renderData.renderSymbols);
+                newHeight = renderData.renderSymbols == null ? 0 : renderData.renderSymbols.length;
+            } else {
+                newWidth = appObject.getRenderWidth();
+                newHeight = appObject.getRenderHeight();
+            }
+            newWidth = Math.max(1, newWidth);
+            newHeight = Math.max(1, newHeight);
+
+            boolean isChanged = xPos != newX || yPos != newY
+                    || width != newWidth || height != newHeight;
+            xPos = newX;
+            yPos = newY;
+            width = newWidth;
+            height = newHeight;
+            return isChanged;
+        }
+
+        /**
+         * @return the index of the slot of the cell in {@link #cellSlots}.
+         */
+        int getSlotIndex(int row, int column) {
+            return (row - minRow) * (maxColumn - minColumn + 1) + (column - minColumn);
+        }
+
+        boolean overlaps(int regionX, int regionY, int regionWidth, int regionHeight) {
+            return xPos < regionX + regionWidth && regionX < xPos + width
+                    && yPos < regionY + regionHeight && regionY < yPos + height;
+        }
+
+        /**
+         * @return the squared distance of the position from the closest point of the bounds.
+         */
+        long getSquaredDistance(int pointX, int pointY) {
+            long dx = Math.max(0, Math.max(xPos - pointX, pointX - (xPos + width - 1)));
+            long dy = Math.max(0, Math.max(yPos - pointY, pointY - (yPos + height - 1)));
+            return dx * dx + dy * dy;
+        }
+
+        private static int getLongestRow(char[][] symbols) {
+            int longest = 0;
+            if (symbols != null) {
+                for (char[] row : symbols) {
+                    longest = Math.max(longest, row == null ? 0 : row.length);
+                }
+            }
+            return longest;
+        }
+    }
+
+    /**
+     * The bitmap of the entries matching a query of one thread,
+     * with the range of the marked ones, it's emptied while they are read.
+     */
+    private static class Matches {
+
+        private long[] bits = new long[1];
+
+        private int minOrder;
+
+        private int maxOrder;
+
+        /**
+         * Makes room for the entries, nothing is marked after it.
+         */
+        void reset(int entryCount) {
+            if (bits.length << 6 < entryCount) {
+                bits = new long[(entryCount + 63) >>> 6];
+            }
+            minOrder = Integer.MAX_VALUE;
+            maxOrder = -1;
+        }
+
+        void mark(int order) {
+            bits[order >>> 6] |= 1L << order;
+            minOrder = Math.min(minOrder, order);
+            maxOrder = Math.max(maxOrder, order);
+        }
+    }
+}
@@ -2,6 +2,11 @@ package com.codecool.core.animation;
 
 import com.codecool.core.App;
 import com.codecool.core.AppObject;
+import com.codecool.core.render.Canvas;
+import com.codecool.core.render.Sprite;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Implements animation functionality
@@ -18,10 +23,27 @@ import com.codecool.core.AppObject;
  * <p>
  * You can set it with {@link #isLooping}
  * at the instantiation.
+ * <p>
+ * The frames are compiled to sprites once, after {@link #defineFrames()},
+ * so the spaces in them are transparent and don't cover what is underneath.
+ * The sprites are shared by the instances of a class which define the same frames,
+ * so spawning an animation doesn't compile them again.
+ * If the frames are changed in place, {@link #recompileFrames()} has to be called.
  */
 
 public abstract class Animation extends AppObject {
 
+    /**
+     * The frames last compiled by each subclass with their sprites.
+     */
+    private static final ClassValue<AtomicReference<CompiledFrames>> COMPILED_FRAMES =
+            new ClassValue<AtomicReference<CompiledFrames>>() {
+                @Override
+                protected AtomicReference<CompiledFrames> computeValue(Class<?> type) {
+                    return new AtomicReference<>();
+                }
+            };
+
     /**
      * You can think of this as your
      * sequence of pictures which will
@@ -29,6 +51,16 @@ public abstract class Animation extends AppObject {
      */
     protected char[][][] frames;
 
+    /**
+     * The {@link #frames} compiled once, drawn by {@link #render(Canvas)}.
+     */
+    private Sprite[] sprites;
+
+    /**
+     * The {@link #frames} which {@link #sprites} were compiled from.
+     */
+    private char[][][] compiledFrames;
+
     /**
      * This is used to keep track of
      * where we are in the sequence.
@@ -82,6 +114,17 @@ public abstract class Animation extends AppObject {
         }
     }
 
+    /**
+     * Starts the animation over from the first frame,
+     * the frames and their sprites are kept for the next use.
+     */
+    @Override
+    public void onReset() {
+        super.onReset();
+        this.frameCounter = 0;
+        this.renderSymbols = this.frames[0];
+    }
+
     /**
      * Sets {@link AppObject#renderSymbols}
      * to the fist frame.
@@ -95,6 +138,59 @@ public abstract class Animation extends AppObject {
         } catch (NullPointerException e) {
             throw new FramesNotDefined();
         }
+        compileSprites();
+    }
+
+    /**
+     * Compiles the sprites again after {@link #frames} was changed in place,
+     * e.g. a character of a frame was replaced. Replacing the whole array
+     * is noticed without it.
+     */
+    protected void recompileFrames() {
+        compileSprites();
+    }
+
+    /**
+     * Takes the sprites of {@link #frames} from the last frames compiled by the class
+     * if they are the same, otherwise compiles them and keeps them for the class.
+     */
+    private void compileSprites() {
+        AtomicReference<CompiledFrames> lastCompiled = COMPILED_FRAMES.get(getClass());
+        CompiledFrames compiled = lastCompiled.get();
+        if (compiled == null || !compiled.isCompiledFrom(this.frames)) {
+            compiled = new CompiledFrames(this.frames);
+            lastCompiled.set(compiled);
+        }
+        this.sprites = compiled.sprites;
+        this.compiledFrames = this.frames;
+    }
+
+    /**
+     * @param frame the index of the frame.
+     * @return the sprite the frame is drawn by.
+     */
+    Sprite getSprite(int frame) {
+        return this.sprites[frame];
+    }
+
+    /**
+     * Draws the sprite of the current frame, only its opaque cells.
+     * <p>
+     * If the render symbols were changed to something else than the current frame,
+     * or {@link #getRenderData()} is overridden, it's drawn the way an AppObject is.
+     * The sprites are compiled again if {@link #frames} was replaced.
+     */
+    @Override
+    public void render(Canvas canvas) {
+        if (this.compiledFrames != this.frames) {
+            compileSprites();
+        }
+        int frame = Math.min(this.frameCounter, this.frames.length - 1);
+        if (isDirtyTrackable() && this.renderSymbols == this.frames[frame]) {
+            canvas.drawSprite(getXPos(), getYPos(), this.sprites[frame]);
+        } else {
+            super.render(canvas);
+        }
     }
 
     /**
@@ -105,4 +201,36 @@ public abstract class Animation extends AppObject {
      * which will represent the frames of the animation.
      */
     public abstract void defineFrames();
+
+    /**
+     * Holds a copy of the frames with their sprites,
+     * the copy can't be changed by the animations after they were compiled.
+     */
+    private static class CompiledFrames {
+
+        private final char[][][] frames;
+
+        private final Sprite[] sprites;
+
+        CompiledFrames(char[][][] frames) {
+            this.frames = new char[frames.length][][];
+            this.sprites = new Sprite[frames.length];
+            for (int i = 0; i < frames.length; i++) {
+                if (frames[i] != null) {
+                    this.frames[i] = new char[frames[i].length][];
+                    for (int row = 0; row < frames[i].length; row++) {
+                        this.frames[i][row] = frames[i][row] == null ? null : frames[i][row].clone();
+                    }
+                    this.sprites[i] = new Sprite(frames[i]);
+                }
+            }
+        }
+
+        /**
+         * @return true if the frames have the same characters as the compiled ones.
+         */
+        boolean isCompiledFrom(char[][][] frames) {
+            return Arrays.deepEquals(this.frames, frames);
+        }
+    }
 }
\ No newline at end of file
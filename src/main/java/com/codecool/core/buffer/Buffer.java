@@ -1,21 +1,80 @@
 package com.codecool.core.buffer;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
 
 /**
  * This class implements a buffer
  * what can be used in cases when
  * it's not possible to add/remove objects
  * to/from a list immediately.
+ * <p>
+ * The operations applied for an element are coalesced,
+ * only the last one counts, and it is a no-op if the element
+ * is already in (or not in) the target. So every element is changed
+ * at most once per {@link #process()}, adding and removing it
+ * before that cancels out, and repeated calls change nothing.
+ * <p>
+ * Removals are collected and done in one pass over the target,
+ * so removing many objects at once costs the same
+ * as removing one, and the order of the rest is kept.
+ * <p>
+ * Objects can be applied for from several threads at the same time.
+ * <p>
+ * The buffer remembers which elements are in the target. A target created by
+ * the buffer, see {@link #Buffer()}, is only changed by the buffer, the others
+ * get a read-only view of it. A target given to the buffer can be changed
+ * by others too, so it is read again in every {@link #process()}.
  * */
 
 public class Buffer<E extends Bufferable> {
 
     /**
-     * An internal container for the buffered objects
+     * An internal container for the buffered objects,
+     * every element is in it at most once.
      * */
-    private List<E> elements = new ArrayList<>();
+    private ArrayList<E> elements = new ArrayList<>();
+
+    /**
+     * The last operation applied for each buffered object.
+     * */
+    private Map<E, BufferTag> pendingOperations = new IdentityHashMap<>();
+
+    /**
+     * The elements of {@link #target}, to tell in constant time
+     * whether an operation changes anything.
+     * */
+    private Set<E> members = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * The elements which will be removed from {@link #target}
+     * in {@link #process()}, compared by identity.
+     * */
+    private Set<E> removals = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * The elements added in the current {@link #process()},
+     * kept to notify {@link #listeners} at once.
+     * */
+    private List<E> added = new ArrayList<>();
+
+    /**
+     * The elements removed in the current {@link #process()},
+     * kept to notify {@link #listeners} at once.
+     * */
+    private List<E> removed = new ArrayList<>();
+
+    /**
+     * The number of elements applied for addition
+     * since the last {@link #process()}.
+     * */
+    private int pendingAdditions;
 
     /**
      * Reference of the list
@@ -23,32 +82,164 @@ public class Buffer<E extends Bufferable> {
      * */
     private List<E> target;
 
+    /**
+     * The read-only view of {@link #target}, if it was created by the buffer, otherwise the target itself.
+     * */
+    private List<E> targetView;
+
+    /**
+     * True if {@link #target} was created by the buffer, so only the buffer changes it.
+     * */
+    private boolean isOwnTarget;
+
+    /**
+     * These are notified about every element
+     * added to or removed from {@link #target}.
+     * */
+    private List<BufferListener<E>> listeners = new ArrayList<>();
+
+    /**
+     * Constructs a Buffer with an empty target of its own,
+     * which can be reached by {@link #getTarget()}.
+     */
+    public Buffer(){
+        this.target = new ArrayList<>();
+        this.targetView = Collections.unmodifiableList(this.target);
+        this.isOwnTarget = true;
+    }
+
     /**
      * Constructs a Buffer with the specified target.
+     * The target is read again in every {@link #process()},
+     * because its changes made by others can't be seen.
      *
      * @param  target  where the Buffer adds/removes objects.
      */
     public Buffer(List<E> target){
         this.target = target;
+        this.targetView = target;
+    }
+
+    /**
+     * @return the list where the Buffer adds/removes objects,
+     * read-only if it was created by the Buffer.
+     */
+    public List<E> getTarget(){
+        return targetView;
     }
 
     /**
      * Adds/Removes objects found in {@link #elements}
-     * from/to {@link #target} based on them BufferTag,
+     * from/to {@link #target} based on the last operation applied for them,
      * and then clears the Buffer.
+     * <p>
+     * {@link #listeners} are notified after every change was made,
+     * so they see the target in its final state. Elements applied for
+     * while notifying are processed by the next call.
      */
-    public void process(){
+    public synchronized void process(){
+        if (elements.isEmpty()) {
+            return;
+        }
+        if (!isOwnTarget) {
+            members.clear();
+            members.addAll(target);
+        }
+        if (target instanceof ArrayList) {
+            ((ArrayList<E>) target).ensureCapacity(target.size() + pendingAdditions);
+        }
+
         for (E element : elements) {
+            BufferTag operation = pendingOperations.get(element);
 
-            if (element.getBufferTag() != null) {
-                if (element.getBufferTag() == BufferTag.ADD) {
+            if (operation == BufferTag.ADD) {
+                if (members.add(element)) {
                     target.add(element);
-                } else if (element.getBufferTag() == BufferTag.REMOVE) {
-                    target.remove(element);
+                    added.add(element);
+                }
+            } else if (operation == BufferTag.REMOVE) {
+                if (members.remove(element)) {
+                    removals.add(element);
                 }
             }
         }
+
+        if (!removals.isEmpty()) {
+            removeFromTarget();
+            removals.clear();
+        }
         elements.clear();
+        pendingOperations.clear();
+        pendingAdditions = 0;
+
+        notifyListeners();
+    }
+
+    /**
+     * Removes every element of {@link #removals} from {@link #target}
+     * in one pass, by moving the kept elements forward
+     * and cutting off the end of the list.
+     */
+    private void removeFromTarget(){
+        if (!(target instanceof RandomAccess)) {
+            ListIterator<E> iterator = target.listIterator();
+            while (iterator.hasNext()) {
+                E element = iterator.next();
+                if (removals.contains(element)) {
+                    iterator.remove();
+                    removed.add(element);
+                }
+            }
+            return;
+        }
+
+        int size = target.size();
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            E element = target.get(i);
+            if (removals.contains(element)) {
+                removed.add(element);
+            } else {
+                if (kept != i) {
+                    target.set(kept, element);
+                }
+                kept++;
+            }
+        }
+        target.subList(kept, size).clear();
+    }
+
+    /**
+     * Notifies {@link #listeners} about the removed
+     * and then the added elements of this {@link #process()}.
+     */
+    private void notifyListeners(){
+        if (added.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+
+        for (BufferListener<E> listener : listeners) {
+            for (E element : removed) {
+                listener.onRemoved(element);
+            }
+            for (E element : added) {
+                listener.onAdded(element);
+            }
+            listener.onProcessed();
+        }
+        added.clear();
+        removed.clear();
+    }
+
+    /**
+     * Saves the operation as the last one applied for the element,
+     * and puts the element in the Buffer if it's not there yet.
+     */
+    private void apply(E element, BufferTag operation){
+        element.setBufferTag(operation);
+        if (pendingOperations.put(element, operation) == null) {
+            elements.add(element);
+        }
     }
 
     /**
@@ -56,9 +247,9 @@ public class Buffer<E extends Bufferable> {
      *
      * @param element that will be added to the target
      */
-    public void applyForAddition(E element){
-        element.setBufferTag(BufferTag.ADD);
-        elements.add(element);
+    public synchronized void applyForAddition(E element){
+        apply(element, BufferTag.ADD);
+        pendingAdditions++;
     }
 
     /**
@@ -66,10 +257,11 @@ public class Buffer<E extends Bufferable> {
      *
      * @param elements that will be added to the target
      */
-    public void applyForAddition(List<E> elements){
+    public synchronized void applyForAddition(List<E> elements){
+        this.elements.ensureCapacity(this.elements.size() + elements.size());
+        pendingAdditions += elements.size();
         for (E element : elements) {
-            element.setBufferTag(BufferTag.ADD);
-            this.elements.add(element);
+            apply(element, BufferTag.ADD);
         }
     }
 
@@ -78,9 +270,8 @@ public class Buffer<E extends Bufferable> {
      *
      * @param element that will be removed from the target
      */
-    public void applyForRemoval(E element){
-        element.setBufferTag(BufferTag.REMOVE);
-        elements.add(element);
+    public synchronized void applyForRemoval(E element){
+        apply(element, BufferTag.REMOVE);
     }
 
     /**
@@ -88,10 +279,20 @@ public class Buffer<E extends Bufferable> {
      *
      * @param elements that will be removed from the target
      */
-    public void applyForRemoval(List<E> elements){
+    public synchronized void applyForRemoval(List<E> elements){
+        this.elements.ensureCapacity(this.elements.size() + elements.size());
         for (E element : elements) {
-            element.setBufferTag(BufferTag.REMOVE);
-            this.elements.add(element);
+            apply(element, BufferTag.REMOVE);
         }
     }
+
+    /**
+     * Adds a listener which will be notified
+     * in {@link #process()} about the added and removed elements.
+     *
+     * @param listener that will be notified
+     */
+    public void addListener(BufferListener<E> listener){
+        listeners.add(listener);
+    }
 }
@@ -0,0 +1,34 @@
+package com.codecool.core.buffer;
+
+/**
+ * Provides interface for any object which
+ * likes to follow what Buffer.process()
+ * adds to and removes from the target.
+ * <p>
+ * The listeners are notified in one batch,
+ * after every change of the process was made.
+ */
+
+public interface BufferListener<E extends Bufferable> {
+
+    /**
+     * Called after the element was added to the target.
+     *
+     * @param element that was added
+     */
+    void onAdded(E element);
+
+    /**
+     * Called after the element was removed from the target.
+     *
+     * @param element that was removed
+     */
+    void onRemoved(E element);
+
+    /**
+     * Called after the listener was notified about every element
+     * added and removed by one process, e.g. to finish a batch of changes at once.
+     */
+    default void onProcessed() {
+    }
+}
@@ -0,0 +1,225 @@
+package com.codecool.core.render;
+
+import java.util.Arrays;
+
+/**
+ * Represents a grid of characters
+ * where View composes a frame.
+ * <p>
+ * Renderable objects draw themselves on it by
+ * {@link Renderable#render(Canvas)}, straight from their own
+ * state, without creating anything in every frame.
+ * <p>
+ * The cells are kept in one flat array row by row,
+ * so the rows can be scanned, cleared and copied in one go.
+ */
+
+public class Canvas {
+
+    /**
+     * The width of the canvas.
+     */
+    private int width;
+
+    /**
+     * The height of the canvas.
+     */
+    private int height;
+
+    /**
+     * The characters of the canvas, indexed by [y * width + x].
+     */
+    private char[] cells;
+
+    /**
+     * The rectangle where drawing is allowed,
+     * it is the whole canvas unless {@link #setClip(int, int, int, int)} is used.
+     */
+    private int clipLeft;
+
+    private int clipTop;
+
+    private int clipRight;
+
+    private int clipBottom;
+
+    /**
+     * Constructs an empty Canvas with the specified size.
+     *
+     * @param width  the width of the canvas.
+     * @param height the height of the canvas.
+     */
+    public Canvas(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.cells = new char[width * height];
+        this.clearClip();
+        this.fill(' ');
+    }
+
+    /**
+     * Draws the symbols with their upper left corner at the given position.
+     * The parts of them outside of the canvas are left out,
+     * the position can be negative too.
+     * <p>
+     * The rows are clipped once against the canvas, then the visible
+     * part of each row is copied at once.
+     *
+     * @param xPos    x coordinate of the symbols.
+     * @param yPos    y coordinate of the symbols.
+     * @param symbols that will be drawn, nothing is drawn if it's null.
+     */
+    public void draw(int xPos, int yPos, char[][] symbols) {
+        if (symbols == null) {
+            return;
+        }
+
+        int top = Math.max(clipTop - yPos, 0);
+        int bottom = Math.min(clipBottom - yPos, symbols.length);
+        int left = Math.max(clipLeft - xPos, 0);
+        int right = clipRight - xPos;
+        for (int y = top; y < bottom; y++) {
+            char[] row = symbols[y];
+            int end = Math.min(row.length, right);
+            if (left < end) {
+                System.arraycopy(row, left, this.cells, (yPos + y) * this.width + xPos + left, end - left);
+            }
+        }
+    }
+
+    /**
+     * Draws the opaque cells of the sprite with its upper left corner at the given position,
+     * copying every run of them at once. The parts of it outside of the canvas are left out,
+     * the position can be negative too.
+     *
+     * @param xPos   x coordinate of the sprite.
+     * @param yPos   y coordinate of the sprite.
+     * @param sprite that will be drawn, nothing is drawn if it's null.
+     */
+    public void drawSprite(int xPos, int yPos, Sprite sprite) {
+        if (sprite == null) {
+            return;
+        }
+
+        char[] characters = sprite.getCharacters();
+        int top = Math.max(clipTop - yPos, 0);
+        int bottom = Math.min(clipBottom - yPos, sprite.getHeight());
+        for (int y = top; y < bottom; y++) {
+            int canvasOffset = (yPos + y) * this.width + xPos;
+            int rowOffset = y * sprite.getWidth();
+            for (int run = sprite.getFirstRun(y); run < sprite.getEndRun(y); run++) {
+                int start = Math.max(sprite.getRunStart(run), clipLeft - xPos);
+                int end = Math.min(sprite.getRunStart(run) + sprite.getRunLength(run), clipRight - xPos);
+                if (start < end) {
+                    System.arraycopy(characters, rowOffset + start, this.cells, canvasOffset + start, end - start);
+                }
+            }
+        }
+    }
+
+    /**
+     * Restricts drawing to the given rectangle of the canvas
+     * until {@link #clearClip()} is called.
+     *
+     * @param xPos   x coordinate of the upper left corner.
+     * @param yPos   y coordinate of the upper left corner.
+     * @param width  the width of the rectangle.
+     * @param height the height of the rectangle.
+     */
+    void setClip(int xPos, int yPos, int width, int height) {
+        this.clipLeft = Math.max(0, xPos);
+        this.clipTop = Math.max(0, yPos);
+        this.clipRight = Math.min(this.width, xPos + width);
+        this.clipBottom = Math.min(this.height, yPos + height);
+    }
+
+    /**
+     * Allows drawing on the whole canvas.
+     */
+    void clearClip() {
+        setClip(0, 0, this.width, this.height);
+    }
+
+    /**
+     * Draws one character, if the position is on the canvas.
+     *
+     * @param xPos      x coordinate of the character.
+     * @param yPos      y coordinate of the character.
+     * @param character that will be drawn.
+     */
+    public void drawCharacter(int xPos, int yPos, char character) {
+        if (xPos >= clipLeft && xPos < clipRight && yPos >= clipTop && yPos < clipBottom) {
+            this.cells[yPos * this.width + xPos] = character;
+        }
+    }
+
+    /**
+     * @param xPos x coordinate of the character.
+     * @param yPos y coordinate of the character.
+     * @return the character at the position.
+     */
+    public char getCharacter(int xPos, int yPos) {
+        return this.cells[yPos * this.width + xPos];
+    }
+
+    /**
+     * Fills every cell with the given character.
+     *
+     * @param character that will be in every cell.
+     */
+    void fill(char character) {
+        Arrays.fill(this.cells, character);
+    }
+
+    /**
+     * Fills every cell of the given rectangle with the given character.
+     *
+     * @param xPos      x coordinate of the upper left corner.
+     * @param yPos      y coordinate of the upper left corner.
+     * @param width     the width of the rectangle.
+     * @param height    the height of the rectangle.
+     * @param character that will be in every cell.
+     */
+    void fill(int xPos, int yPos, int width, int height, char character) {
+        int left = Math.max(0, xPos);
+        int right = Math.min(this.width, xPos + width);
+        if (left >= right) {
+            return;
+        }
+        for (int i = Math.max(0, yPos); i < Math.min(this.height, yPos + height); i++) {
+            Arrays.fill(this.cells, i * this.width + left, i * this.width + right, character);
+        }
+    }
+
+    /**
+     * Copies every cell of a canvas of the same size.
+     *
+     * @param other the canvas that will be copied.
+     */
+    void copyFrom(Canvas other) {
+        System.arraycopy(other.cells, 0, this.cells, 0, this.cells.length);
+    }
+
+    /**
+     * The row y starts at y * {@link #getWidth()}.
+     *
+     * @return the characters of the canvas row by row, not a copy.
+     */
+    char[] getCells() {
+        return this.cells;
+    }
+
+    /**
+     * @return the width of the canvas.
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * @return the height of the canvas.
+     */
+    public int getHeight() {
+        return this.height;
+    }
+}
@@ -0,0 +1,157 @@
+package com.codecool.core.render;
+
+/**
+ * Collects the rectangles of a canvas
+ * which have to be repainted in a frame.
+ * <p>
+ * Overlapping rectangles are merged. When there are too many of them,
+ * or they cover most of the canvas, it is marked full,
+ * because then repainting the whole canvas is cheaper.
+ */
+
+class DirtyRegion {
+
+    /**
+     * The most rectangles kept before the region becomes full.
+     */
+    private static final int MAX_RECTANGLES = 16;
+
+    private final int canvasWidth;
+
+    private final int canvasHeight;
+
+    private final int[] xPositions = new int[MAX_RECTANGLES];
+
+    private final int[] yPositions = new int[MAX_RECTANGLES];
+
+    private final int[] widths = new int[MAX_RECTANGLES];
+
+    private final int[] heights = new int[MAX_RECTANGLES];
+
+    /**
+     * The number of rectangles.
+     */
+    private int count;
+
+    /**
+     * The sum of the area of the rectangles.
+     */
+    private int area;
+
+    /**
+     * True if the whole canvas has to be repainted.
+     */
+    private boolean isFull;
+
+    /**
+     * Constructs an empty DirtyRegion for a canvas with the specified size.
+     *
+     * @param canvasWidth  the width of the canvas.
+     * @param canvasHeight the height of the canvas.
+     */
+    DirtyRegion(int canvasWidth, int canvasHeight) {
+        this.canvasWidth = canvasWidth;
+        this.canvasHeight = canvasHeight;
+    }
+
+    /**
+     * Adds a rectangle, the part of it outside of the canvas is left out.
+     *
+     * @param xPos   x coordinate of the upper left corner.
+     * @param yPos   y coordinate of the upper left corner.
+     * @param width  the width of the rectangle.
+     * @param height the height of the rectangle.
+     */
+    void add(int xPos, int yPos, int width, int height) {
+        int left = Math.max(0, xPos);
+        int top = Math.max(0, yPos);
+        int right = Math.min(canvasWidth, xPos + width);
+        int bottom = Math.min(canvasHeight, yPos + height);
+        if (isFull || left >= right || top >= bottom) {
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (left <= xPositions[i] + widths[i] && xPositions[i] <= right
+                    && top <= yPositions[i] + heights[i] && yPositions[i] <= bottom) {
+                left = Math.min(left, xPositions[i]);
+                top = Math.min(top, yPositions[i]);
+                right = Math.max(right, xPositions[i] + widths[i]);
+                bottom = Math.max(bottom, yPositions[i] + heights[i]);
+                removeRectangle(i);
+                i = -1;
+            }
+        }
+
+        if (count == MAX_RECTANGLES) {
+            isFull = true;
+            return;
+        }
+        xPositions[count] = left;
+        yPositions[count] = top;
+        widths[count] = right - left;
+        heights[count] = bottom - top;
+        area += widths[count] * heights[count];
+        count++;
+
+        if (area * 2 > canvasWidth * canvasHeight) {
+            isFull = true;
+        }
+    }
+
+    /**
+     * Moves the last rectangle to the place of the removed one.
+     */
+    private void removeRectangle(int index) {
+        area -= widths[index] * heights[index];
+        count--;
+        xPositions[index] = xPositions[count];
+        yPositions[index] = yPositions[count];
+        widths[index] = widths[count];
+        heights[index] = heights[count];
+    }
+
+    /**
+     * Marks the whole canvas to be repainted.
+     */
+    void addAll() {
+        isFull = true;
+    }
+
+    /**
+     * Empties the region.
+     */
+    void clear() {
+        count = 0;
+        area = 0;
+        isFull = false;
+    }
+
+    boolean isFull() {
+        return isFull;
+    }
+
+    boolean isEmpty() {
+        return !isFull && count == 0;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    int getX(int index) {
+        return xPositions[index];
+    }
+
+    int getY(int index) {
+        return yPositions[index];
+    }
+
+    int getWidth(int index) {
+        return widths[index];
+    }
+
+    int getHeight(int index) {
+        return heights[index];
+    }
+}
@@ -0,0 +1,44 @@
+package com.codecool.core.render;
+
+/**
+ * Provides interface for any renderable object
+ * which can tell when it has to be drawn again.
+ * <p>
+ * View uses it to repaint only the regions of the canvas
+ * where such objects have changed, instead of the whole canvas.
+ */
+
+public interface DirtyTrackable extends Renderable {
+
+    /**
+     * @return x coordinate of the upper left corner of what is drawn.
+     */
+    int getRenderX();
+
+    /**
+     * @return y coordinate of the upper left corner of what is drawn.
+     */
+    int getRenderY();
+
+    /**
+     * @return the width of what is drawn.
+     */
+    int getRenderWidth();
+
+    /**
+     * @return the height of what is drawn.
+     */
+    int getRenderHeight();
+
+    /**
+     * @return a number which changes whenever what is drawn changes.
+     */
+    long getRenderVersion();
+
+    /**
+     * @return false if the object can't tell its changes, so it's drawn again in every frame.
+     */
+    default boolean isDirtyTrackable() {
+        return true;
+    }
+}
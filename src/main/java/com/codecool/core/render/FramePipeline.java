@@ -0,0 +1,143 @@
+package com.codecool.core.render;
+
+import java.util.function.Consumer;
+
+/**
+ * Hands the composed frames of View over to a dedicated output thread,
+ * so writing a frame to the terminal overlaps with computing the next one.
+ * <p>
+ * It uses three canvases: the caller copies a frame into the back one,
+ * which is then swapped with the ready one, and the output thread swaps
+ * the ready one with the front one it writes. The caller never waits
+ * for the output, if it is slower the older ready frame is dropped.
+ */
+
+class FramePipeline implements Runnable {
+
+    /**
+     * Guards the swapping of the canvases.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Writes a frame, it is called on the output thread.
+     */
+    private final Consumer<Canvas> output;
+
+    /**
+     * Where the caller copies the next frame.
+     */
+    private Canvas back;
+
+    /**
+     * The latest complete frame, waiting for the output thread.
+     */
+    private Canvas ready;
+
+    /**
+     * The frame being written by the output thread.
+     */
+    private Canvas front;
+
+    /**
+     * True if {@link #ready} holds a frame not written yet.
+     */
+    private boolean isReadyNew;
+
+    /**
+     * False after {@link #stop()} was called.
+     */
+    private boolean isRunning = true;
+
+    /**
+     * The output thread.
+     */
+    private Thread thread;
+
+    /**
+     * Constructs a FramePipeline for frames of the specified size.
+     *
+     * @param width  the width of the frames.
+     * @param height the height of the frames.
+     * @param output writes a frame, it is called on the output thread.
+     */
+    FramePipeline(int width, int height, Consumer<Canvas> output) {
+        this.back = new Canvas(width, height);
+        this.ready = new Canvas(width, height);
+        this.front = new Canvas(width, height);
+        this.output = output;
+    }
+
+    /**
+     * Starts the output thread.
+     */
+    void start() {
+        thread = new Thread(this, "view-output");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Copies the frame and hands it over to the output thread.
+     *
+     * @param frame that will be written, it can be changed right after the call.
+     */
+    void submit(Canvas frame) {
+        back.copyFrom(frame);
+        synchronized (lock) {
+            Canvas submitted = back;
+            back = ready;
+            ready = submitted;
+            isReadyNew = true;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Writes the ready frames until {@link #stop()} is called.
+     */
+    @Override
+    public void run() {
+        while (true) {
+            synchronized (lock) {
+                while (!isReadyNew && isRunning) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!isReadyNew) {
+                    return;
+                }
+
+                Canvas taken = ready;
+                ready = front;
+                front = taken;
+                isReadyNew = false;
+            }
+
+            try {
+                output.accept(front);
+            } catch (Exception e) {
+                System.err.println("Error at FramePipeline.run()\n" + e);
+            }
+        }
+    }
+
+    /**
+     * Writes the last ready frame and stops the output thread.
+     */
+    void stop() {
+        synchronized (lock) {
+            isRunning = false;
+            lock.notifyAll();
+        }
+
+        try {
+            thread.join();
+        } catch (Exception e) {
+            System.err.println("Error at FramePipeline.stop()\n" + e);
+        }
+    }
+}
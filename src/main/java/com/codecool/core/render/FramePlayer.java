@@ -0,0 +1,192 @@
+package com.codecool.core.render;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Plays back a recording made by {@link FrameRecorder} to a {@link RenderSink},
+ * at the original speed or as fast as possible.
+ * <p>
+ * The file is mapped into memory and the frames are decoded one by one
+ * into the same canvas. It can be run from the command line too:
+ * {@code java -cp JTerminalApp.jar com.codecool.core.render.FramePlayer <file> [--fast]}
+ */
+
+public class FramePlayer {
+
+    /**
+     * The content of the recording.
+     */
+    private ByteBuffer recording;
+
+    /**
+     * The width of the frames.
+     */
+    private int width;
+
+    /**
+     * The height of the frames.
+     */
+    private int height;
+
+    /**
+     * The last frame decoded.
+     */
+    private Canvas canvas;
+
+    /**
+     * The time between the last frame and the one before it in milliseconds.
+     */
+    private long frameDelay;
+
+    /**
+     * Constructs a FramePlayer which reads a recording from a file.
+     *
+     * @param path of the recording.
+     * @throws IOException if the file can't be read or it's not a recording.
+     */
+    public FramePlayer(String path) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            this.recording = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        try {
+            if (recording.getInt() != FrameRecorder.MAGIC || recording.get() != FrameRecorder.VERSION) {
+                throw new IOException("Not a frame recording: " + path);
+            }
+            this.width = (int) getNumber();
+            this.height = (int) getNumber();
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Not a frame recording: " + path);
+        }
+        this.canvas = new Canvas(width, height);
+    }
+
+    /**
+     * Plays every frame of the recording, the sink is opened before the first one
+     * and closed after the last one.
+     *
+     * @param renderSink where the frames are put.
+     * @param isRealTime true to wait between the frames as long as it was recorded,
+     *                   false to play them as fast as possible.
+     * @return the number of frames played.
+     */
+    public int play(RenderSink renderSink, boolean isRealTime) {
+        int frameCount = 0;
+        long nextFrameTime = System.nanoTime();
+        renderSink.open(width, height);
+        try {
+            while (nextFrame()) {
+                if (isRealTime) {
+                    nextFrameTime += frameDelay * 1_000_000;
+                    long sleepTime = (nextFrameTime - System.nanoTime()) / 1_000_000;
+                    if (sleepTime > 0) {
+                        Thread.sleep(sleepTime);
+                    }
+                }
+                renderSink.write(canvas);
+                frameCount++;
+            }
+        } catch (InterruptedException e) {
+            System.err.println("Error at FramePlayer.play()\n" + e);
+            Thread.currentThread().interrupt();
+        } finally {
+            renderSink.close();
+        }
+        return frameCount;
+    }
+
+    /**
+     * Decodes the next frame into {@link #canvas}.
+     *
+     * @return false if there are no more frames, or the recording is cut off.
+     */
+    boolean nextFrame() {
+        if (!recording.hasRemaining()) {
+            return false;
+        }
+
+        char[] cells = canvas.getCells();
+        try {
+            frameDelay = getNumber();
+            int position = 0;
+            while (true) {
+                position += (int) getNumber();
+                int runLength = (int) getNumber();
+                if (runLength == 0) {
+                    return true;
+                }
+                char character = (char) getNumber();
+                if (position + runLength > cells.length) {
+                    System.err.println("Error at FramePlayer.nextFrame()\nThe recording is corrupted");
+                    return false;
+                }
+                for (int end = position + runLength; position < end; position++) {
+                    cells[position] = character;
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads a number stored by {@link FrameRecorder}.
+     *
+     * @return the next number of the recording.
+     */
+    private long getNumber() {
+        long number = 0;
+        int shift = 0;
+        byte next;
+        do {
+            next = recording.get();
+            number |= (long) (next & 0x7F) << shift;
+            shift += 7;
+        } while (next < 0);
+        return number;
+    }
+
+    /**
+     * @return the last frame decoded.
+     */
+    public Canvas getCanvas() {
+        return this.canvas;
+    }
+
+    /**
+     * @return the width of the frames.
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * @return the height of the frames.
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Plays a recording on the terminal.
+     *
+     * @param args the path of the recording, then --fast to play it as fast as possible.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: FramePlayer <recording> [--fast]");
+            return;
+        }
+        try {
+            boolean isRealTime = args.length < 2 || !"--fast".equals(args[1]);
+            new FramePlayer(args[0]).play(new TerminalSink(RenderMode.DIFF), isRealTime);
+        } catch (IOException e) {
+            System.err.println("Error at FramePlayer.main()\n" + e);
+        }
+    }
+}
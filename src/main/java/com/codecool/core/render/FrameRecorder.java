@@ -0,0 +1,201 @@
+package com.codecool.core.render;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Records the frames into a compact file, which can be played back by {@link FramePlayer},
+ * e.g. to profile a session or attach it to a bug report.
+ * <p>
+ * After a header with the size of the frames, every frame is stored as the time
+ * elapsed since the previous one and the cells changed since then. The changes are
+ * run-length encoded: the number of cells skipped, then the length and the character
+ * of a run. All the numbers are variable-length, so a frame where nothing changed
+ * takes only a few bytes. The bytes are collected in a direct buffer and
+ * written to the file channel only when it is full.
+ */
+
+public class FrameRecorder implements RenderSink {
+
+    /**
+     * The first bytes of a recording, "JTFR".
+     */
+    static final int MAGIC = 0x4A544652;
+
+    /**
+     * The version of the format.
+     */
+    static final byte VERSION = 1;
+
+    /**
+     * The size of the buffer collecting the bytes before they are written.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The most bytes a run can take, three variable-length numbers.
+     */
+    private static final int MAX_RUN_BYTES = 15;
+
+    /**
+     * The file the frames are written to.
+     */
+    private FileChannel channel;
+
+    /**
+     * Collects the encoded frames until it's full.
+     */
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /**
+     * The last frame recorded, the next one is compared to it.
+     */
+    private Canvas previousFrame;
+
+    /**
+     * The time of the last frame recorded in nanoseconds.
+     */
+    private long previousTime;
+
+    /**
+     * The number of bytes written to the file.
+     */
+    private volatile long bytesWritten;
+
+    /**
+     * False after an error or {@link #close()}, then the frames are ignored.
+     */
+    private boolean isRecording;
+
+    /**
+     * Constructs a FrameRecorder which writes to a file.
+     *
+     * @param path of the file, it is overwritten.
+     * @throws IOException if the file can't be opened.
+     */
+    public FrameRecorder(String path) throws IOException {
+        this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Writes the header, the first frame is compared to an empty one.
+     */
+    @Override
+    public void open(int width, int height) {
+        this.previousFrame = new Canvas(width, height);
+        this.previousTime = System.nanoTime();
+        this.isRecording = true;
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        putNumber(width);
+        putNumber(height);
+    }
+
+    /**
+     * Appends the time and the changed cells of the frame to the buffer.
+     */
+    @Override
+    public void write(Canvas frame) {
+        if (!isRecording || buffer.remaining() < MAX_RUN_BYTES && !flush()) {
+            return;
+        }
+
+        long elapsedMillis = (System.nanoTime() - previousTime) / 1_000_000;
+        putNumber(elapsedMillis);
+        previousTime += elapsedMillis * 1_000_000;
+
+        char[] cells = frame.getCells();
+        char[] previousCells = previousFrame.getCells();
+        int lastEnd = 0;
+        int i = 0;
+        while (i < cells.length) {
+            if (cells[i] == previousCells[i]) {
+                i++;
+                continue;
+            }
+
+            char character = cells[i];
+            int runEnd = i + 1;
+            while (runEnd < cells.length && cells[runEnd] == character) {
+                runEnd++;
+            }
+            if (buffer.remaining() < MAX_RUN_BYTES && !flush()) {
+                return;
+            }
+            putNumber(i - lastEnd);
+            putNumber(runEnd - i);
+            putNumber(character);
+            lastEnd = runEnd;
+            i = runEnd;
+        }
+        if (buffer.remaining() < MAX_RUN_BYTES && !flush()) {
+            return;
+        }
+        putNumber(0);
+        putNumber(0);
+        previousFrame.copyFrom(frame);
+    }
+
+    /**
+     * Writes the rest of the buffer and closes the file.
+     */
+    @Override
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        if (isRecording) {
+            flush();
+            isRecording = false;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error at FrameRecorder.close()\n" + e);
+        }
+        channel = null;
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return this.bytesWritten;
+    }
+
+    /**
+     * Writes the content of the buffer to the file, the recording stops on error.
+     *
+     * @return false if the buffer couldn't be written.
+     */
+    private boolean flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                bytesWritten += channel.write(buffer);
+            }
+            buffer.clear();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error at FrameRecorder.flush()\n" + e);
+            isRecording = false;
+            return false;
+        }
+    }
+
+    /**
+     * Puts a non-negative number to the buffer,
+     * seven bits in each byte, the highest bit is set if more bytes follow.
+     *
+     * @param number that will be stored.
+     */
+    private void putNumber(long number) {
+        while (number >= 0x80) {
+            buffer.put((byte) (number | 0x80));
+            number >>>= 7;
+        }
+        buffer.put((byte) number);
+    }
+}
@@ -0,0 +1,60 @@
+package com.codecool.core.render;
+
+/**
+ * Keeps the last frame in memory instead of printing it,
+ * so the app can run without a terminal, e.g. in tests, benchmarks or on a server.
+ */
+
+public class HeadlessSink implements RenderSink {
+
+    /**
+     * A copy of the last frame written, null until the sink is opened.
+     */
+    private Canvas canvas;
+
+    /**
+     * The number of frames written.
+     */
+    private int frameCount;
+
+    @Override
+    public void open(int width, int height) {
+        this.canvas = new Canvas(width, height);
+    }
+
+    @Override
+    public void write(Canvas frame) {
+        this.canvas.copyFrom(frame);
+        this.frameCount++;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * @return a copy of the last frame written.
+     */
+    public Canvas getCanvas() {
+        return this.canvas;
+    }
+
+    /**
+     * @return the rows of the last frame, each followed by a line break.
+     */
+    public String getContent() {
+        StringBuilder content = new StringBuilder(canvas.getHeight() * (canvas.getWidth() + 1));
+        char[] cells = canvas.getCells();
+        for (int i = 0; i < canvas.getHeight(); i++) {
+            content.append(cells, i * canvas.getWidth(), canvas.getWidth()).append('\n');
+        }
+        return content.toString();
+    }
+
+    /**
+     * @return the number of frames written.
+     */
+    public int getFrameCount() {
+        return this.frameCount;
+    }
+}
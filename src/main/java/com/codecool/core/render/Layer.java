@@ -0,0 +1,187 @@
+package com.codecool.core.render;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Holds objects which are drawn together, above or below the
+ * app objects of View, it can be added by {@link View#addLayer(Layer)}.
+ * <p>
+ * The objects of a layer are drawn in the order of their z-index.
+ * They are inserted at their place when they are added, and put back
+ * in order through {@link ZIndexBuckets} only after a z-index has changed,
+ * so they are never sorted.
+ * <br>
+ * A static layer is drawn once to its own canvas and only merged into the frames,
+ * e.g. for walls, borders and maps. It's drawn again only after an object
+ * was added or removed, or {@link #invalidate()} was called.
+ */
+
+public class Layer<T extends Renderable> {
+
+    /**
+     * Marks the cells of the cached canvas nothing was drawn to.
+     */
+    private static final char TRANSPARENT = '\0';
+
+    /**
+     * The layers with a lower depth are drawn first,
+     * the negative ones below the app objects, the others above them.
+     */
+    private final int depth;
+
+    /**
+     * If it's true the layer is drawn from {@link #cache}.
+     */
+    private final boolean isStatic;
+
+    /**
+     * The objects of the layer, in the order they are drawn.
+     */
+    private final List<T> renderables = new ArrayList<>();
+
+    /**
+     * The read-only view of {@link #renderables}.
+     */
+    private final List<T> renderablesView = Collections.unmodifiableList(renderables);
+
+    /**
+     * Puts the objects back in order after their z-index has changed, null until it is needed.
+     */
+    private ZIndexBuckets<T> reorderBuckets;
+
+    /**
+     * The objects of a static layer drawn, null until it is needed.
+     */
+    private Sprite cache;
+
+    /**
+     * True if the content of the layer changed since it was last drawn.
+     */
+    private boolean isChanged = true;
+
+    /**
+     * Constructs a Layer with the specified params.
+     *
+     * @param depth    the negative layers are drawn below the app objects, the others above them.
+     * @param isStatic if it's true the layer is drawn once and merged into the frames.
+     */
+    public Layer(int depth, boolean isStatic) {
+        this.depth = depth;
+        this.isStatic = isStatic;
+    }
+
+    /**
+     * @param renderable that will be drawn in the layer
+     */
+    public void add(T renderable) {
+        int index = renderables.size();
+        while (index > 0 && renderables.get(index - 1).getZIndex() > renderable.getZIndex()) {
+            index--;
+        }
+        renderables.add(index, renderable);
+        isChanged = true;
+    }
+
+    /**
+     * @param renderable that won't be drawn in the layer anymore
+     */
+    public void remove(T renderable) {
+        if (renderables.remove(renderable)) {
+            isChanged = true;
+        }
+    }
+
+    /**
+     * Makes a static layer drawn again in the next frame,
+     * it has to be called after an object of it has changed.
+     */
+    public void invalidate() {
+        isChanged = true;
+    }
+
+    /**
+     * Puts the objects back in the order of their z-index if one of them has changed it,
+     * the ones with the same z-index keep their order.
+     * It's a single pass while they are in order.
+     */
+    void sortByZIndex() {
+        for (int i = 1; i < renderables.size(); i++) {
+            if (renderables.get(i - 1).getZIndex() > renderables.get(i).getZIndex()) {
+                if (reorderBuckets == null) {
+                    reorderBuckets = new ZIndexBuckets<>();
+                }
+                reorderBuckets.addAll(renderables);
+                renderables.clear();
+                reorderBuckets.drainTo(renderables);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Draws the layer on the canvas, within the clip of the canvas.
+     * A static layer is drawn to its cache first, if it has changed.
+     *
+     * @param canvas where the layer is drawn.
+     */
+    void draw(Canvas canvas) {
+        if (isStatic) {
+            if (isChanged || cache == null
+                    || cache.getWidth() != canvas.getWidth() || cache.getHeight() != canvas.getHeight()) {
+                rasterize(canvas.getWidth(), canvas.getHeight());
+            }
+            canvas.drawSprite(0, 0, cache);
+            return;
+        }
+
+        sortByZIndex();
+        for (int i = 0; i < renderables.size(); i++) {
+            renderables.get(i).render(canvas);
+        }
+        isChanged = false;
+    }
+
+    /**
+     * Draws the objects to a new canvas and compiles it to {@link #cache}.
+     */
+    private void rasterize(int width, int height) {
+        sortByZIndex();
+        Canvas canvas = new Canvas(width, height);
+        canvas.fill(TRANSPARENT);
+        for (int i = 0; i < renderables.size(); i++) {
+            renderables.get(i).render(canvas);
+        }
+        cache = new Sprite(canvas, TRANSPARENT);
+        isChanged = false;
+    }
+
+    /**
+     * @return true if the layer has changed since it was last drawn.
+     */
+    boolean isChanged() {
+        return isChanged;
+    }
+
+    /**
+     * @return the depth of the layer.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return true if the layer is drawn once and merged into the frames.
+     */
+    public boolean isStatic() {
+        return isStatic;
+    }
+
+    /**
+     * @return a read-only view of the objects of the layer, in the order they are drawn.
+     */
+    public List<T> getRenderables() {
+        return renderablesView;
+    }
+}
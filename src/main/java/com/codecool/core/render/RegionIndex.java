@@ -0,0 +1,25 @@
+package com.codecool.core.render;
+
+import java.util.List;
+
+/**
+ * Provides interface for any index
+ * which can find the objects in a region quickly.
+ * <p>
+ * View uses it to draw only the objects on the screen.
+ */
+
+public interface RegionIndex<T> {
+
+    /**
+     * Adds the objects overlapping the region to the result,
+     * in the order they were added to the index.
+     *
+     * @param xPos   x coordinate of the upper left corner of the region.
+     * @param yPos   y coordinate of the upper left corner of the region.
+     * @param width  the width of the region.
+     * @param height the height of the region.
+     * @param result where the objects are added.
+     */
+    void queryRegion(int xPos, int yPos, int width, int height, List<T> result);
+}
@@ -0,0 +1,17 @@
+package com.codecool.core.render;
+
+/**
+ * It is a util like class to support View.
+ * The enums represents the different ways
+ * View can put the canvas on the terminal in the
+ * View.render() method.
+ * <p>
+ * FULL clears the terminal and prints the whole canvas in every frame.
+ * <br>
+ * DIFF keeps the previous frame and prints only the cells
+ * that changed since then, so unchanged frames print nothing.
+ */
+
+public enum RenderMode {
+    FULL, DIFF
+}
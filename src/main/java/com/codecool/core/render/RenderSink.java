@@ -0,0 +1,44 @@
+package com.codecool.core.render;
+
+/**
+ * Puts the frames composed by View somewhere,
+ * e.g. on the terminal, into memory or into a file.
+ */
+
+public interface RenderSink {
+
+    /**
+     * Prepares the output, it's called once before the first frame.
+     *
+     * @param width  the width of the frames.
+     * @param height the height of the frames.
+     */
+    void open(int width, int height);
+
+    /**
+     * Puts a frame to the output, it is called
+     * on the output thread if the view is pipelined.
+     *
+     * @param frame the composed frame, it must not be kept after the call.
+     */
+    void write(Canvas frame);
+
+    /**
+     * Forces the next frame to be written whole,
+     * e.g. when the output was changed by something else.
+     */
+    default void invalidate() {
+    }
+
+    /**
+     * @return the number of bytes written to the output, 0 if it doesn't count them.
+     */
+    default long getBytesWritten() {
+        return 0;
+    }
+
+    /**
+     * Resets the output, it's called once after the last frame.
+     */
+    void close();
+}
@@ -7,5 +7,32 @@ package com.codecool.core.render;
 
 public interface Renderable {
 
+    /**
+     * @return the data that is needed for the object to be rendered.
+     */
     RenderData getRenderData();
+
+    /**
+     * Objects with a higher z-index are drawn over the ones with a lower one,
+     * the ones with the same z-index are drawn in the order they were added.
+     *
+     * @return the z-index of the object, 0 by default.
+     */
+    default int getZIndex() {
+        return 0;
+    }
+
+    /**
+     * Draws the object on the canvas in every frame.
+     * <p>
+     * By default it's done by {@link #getRenderData()},
+     * override it to draw straight from the object's own state
+     * without creating a RenderData in every frame.
+     *
+     * @param canvas where the object will be drawn.
+     */
+    default void render(Canvas canvas) {
+        RenderData renderData = getRenderData();
+        canvas.draw(renderData.xPos, renderData.yPos, renderData.renderSymbols);
+    }
 }
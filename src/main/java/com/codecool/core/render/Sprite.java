@@ -0,0 +1,226 @@
+package com.codecool.core.render;
+
+import java.util.Arrays;
+
+/**
+ * Holds a picture compiled once from a 2D char array,
+ * so it can be drawn fast and with transparent cells.
+ * <p>
+ * The characters are kept in one flat array row by row,
+ * the opaque cells are marked in a bit mask, and every row
+ * is split into runs of opaque cells, which are copied at once
+ * by {@link Canvas#drawSprite(int, int, Sprite)}.
+ * The transparent cells leave the canvas as it was.
+ */
+
+public class Sprite {
+
+    /**
+     * The character which is transparent by default.
+     */
+    public static final char DEFAULT_TRANSPARENT = ' ';
+
+    /**
+     * The width of the longest row.
+     */
+    private final int width;
+
+    /**
+     * The number of rows.
+     */
+    private final int height;
+
+    /**
+     * The characters indexed by [y * width + x], shorter rows are padded with transparent cells.
+     */
+    private final char[] characters;
+
+    /**
+     * The bit of a cell is set if it is opaque, indexed the same way as {@link #characters}.
+     */
+    private final long[] opaqueMask;
+
+    /**
+     * The column where each run of opaque cells starts.
+     */
+    private final int[] runStarts;
+
+    /**
+     * The number of cells in each run.
+     */
+    private final int[] runLengths;
+
+    /**
+     * The index of the first run of each row, and the number of runs at the end.
+     */
+    private final int[] rowRuns;
+
+    /**
+     * Compiles a Sprite where the {@link #DEFAULT_TRANSPARENT} cells are transparent.
+     *
+     * @param symbols the picture indexed by [y][x].
+     */
+    public Sprite(char[][] symbols) {
+        this(symbols, DEFAULT_TRANSPARENT);
+    }
+
+    /**
+     * Compiles a Sprite with the specified params.
+     *
+     * @param symbols     the picture indexed by [y][x].
+     * @param transparent the character of the transparent cells.
+     */
+    public Sprite(char[][] symbols, char transparent) {
+        this(flatten(symbols, transparent), getLongestRow(symbols), symbols.length, transparent);
+    }
+
+    /**
+     * Compiles a Sprite from the content of a canvas.
+     *
+     * @param canvas      the picture, it is copied.
+     * @param transparent the character of the transparent cells.
+     */
+    Sprite(Canvas canvas, char transparent) {
+        this(canvas.getCells().clone(), canvas.getWidth(), canvas.getHeight(), transparent);
+    }
+
+    /**
+     * Compiles a Sprite from characters kept row by row.
+     *
+     * @param characters  the picture indexed by [y * width + x], it is kept, not copied.
+     * @param width       the width of the picture.
+     * @param height      the height of the picture.
+     * @param transparent the character of the transparent cells.
+     */
+    private Sprite(char[] characters, int width, int height, char transparent) {
+        int runCount = 0;
+        for (int index = 0; index < characters.length; index++) {
+            if (characters[index] != transparent && (index % width == 0 || characters[index - 1] == transparent)) {
+                runCount++;
+            }
+        }
+
+        this.width = width;
+        this.height = height;
+        this.characters = characters;
+        this.opaqueMask = new long[(width * height + 63) / 64];
+        this.runStarts = new int[runCount];
+        this.runLengths = new int[runCount];
+        this.rowRuns = new int[height + 1];
+
+        int run = 0;
+        for (int y = 0; y < height; y++) {
+            rowRuns[y] = run;
+            for (int x = 0; x < width; x++) {
+                int index = y * width + x;
+                if (characters[index] == transparent) {
+                    continue;
+                }
+
+                opaqueMask[index >>> 6] |= 1L << index;
+                if (x == 0 || characters[index - 1] == transparent) {
+                    runStarts[run] = x;
+                    run++;
+                }
+                runLengths[run - 1]++;
+            }
+        }
+        rowRuns[height] = run;
+    }
+
+    /**
+     * @return the rows copied one after the other, the shorter ones padded with transparent cells.
+     */
+    private static char[] flatten(char[][] symbols, char transparent) {
+        int width = getLongestRow(symbols);
+        char[] characters = new char[width * symbols.length];
+        Arrays.fill(characters, transparent);
+        for (int y = 0; y < symbols.length; y++) {
+            System.arraycopy(symbols[y], 0, characters, y * width, symbols[y].length);
+        }
+        return characters;
+    }
+
+    /**
+     * @return the length of the longest row.
+     */
+    private static int getLongestRow(char[][] symbols) {
+        int longestRow = 0;
+        for (char[] row : symbols) {
+            longestRow = Math.max(longestRow, row.length);
+        }
+        return longestRow;
+    }
+
+    /**
+     * @param xPos x coordinate of the cell.
+     * @param yPos y coordinate of the cell.
+     * @return true if the cell is drawn.
+     */
+    public boolean isOpaque(int xPos, int yPos) {
+        int index = yPos * width + xPos;
+        return (opaqueMask[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * @param xPos x coordinate of the cell.
+     * @param yPos y coordinate of the cell.
+     * @return the character of the cell.
+     */
+    public char getCharacter(int xPos, int yPos) {
+        return characters[yPos * width + xPos];
+    }
+
+    /**
+     * @return the width of the longest row.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the number of rows.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return the characters row by row, not a copy.
+     */
+    char[] getCharacters() {
+        return characters;
+    }
+
+    /**
+     * @param y the index of the row.
+     * @return the index of the first run of the row.
+     */
+    int getFirstRun(int y) {
+        return rowRuns[y];
+    }
+
+    /**
+     * @param y the index of the row.
+     * @return the index after the last run of the row.
+     */
+    int getEndRun(int y) {
+        return rowRuns[y + 1];
+    }
+
+    /**
+     * @param run the index of the run.
+     * @return the column where the run starts.
+     */
+    int getRunStart(int run) {
+        return runStarts[run];
+    }
+
+    /**
+     * @param run the index of the run.
+     * @return the number of cells in the run.
+     */
+    int getRunLength(int run) {
+        return runLengths[run];
+    }
+}
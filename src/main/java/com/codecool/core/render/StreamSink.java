@@ -0,0 +1,69 @@
+package com.codecool.core.render;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the same output as {@link TerminalSink} to a file or a pipe,
+ * without touching the state of the terminal,
+ * e.g. to replay it later with cat or to pipe it to another process.
+ */
+
+public class StreamSink extends TerminalSink {
+
+    /**
+     * The stream the sink opened itself, closed on {@link #close()},
+     * null if it was given by the caller.
+     */
+    private OutputStream ownStream;
+
+    /**
+     * Constructs a StreamSink with the specified params.
+     *
+     * @param out        where the frames are written, it is not closed by the sink.
+     * @param renderMode determines how the frames are encoded.
+     */
+    public StreamSink(OutputStream out, RenderMode renderMode) {
+        this(out, renderMode, false);
+    }
+
+    /**
+     * Constructs a StreamSink which writes to a file.
+     *
+     * @param path       of the file, it is overwritten.
+     * @param renderMode determines how the frames are encoded.
+     * @throws FileNotFoundException if the file can't be opened.
+     */
+    public StreamSink(String path, RenderMode renderMode) throws FileNotFoundException {
+        this(new FileOutputStream(path), renderMode, true);
+    }
+
+    /**
+     * Constructs a StreamSink with the specified params.
+     *
+     * @param out         where the frames are written.
+     * @param renderMode  determines how the frames are encoded.
+     * @param isOwnStream true if the stream is closed by the sink.
+     */
+    private StreamSink(OutputStream out, RenderMode renderMode, boolean isOwnStream) {
+        super(renderMode, new TerminalWriter(out), null);
+        this.ownStream = isOwnStream ? out : null;
+    }
+
+    /**
+     * Shows the cursor, then closes the file if the sink opened it.
+     */
+    @Override
+    public void close() {
+        super.close();
+        if (ownStream != null) {
+            try {
+                ownStream.close();
+            } catch (IOException e) {
+                System.err.println("Error at StreamSink.close()\n" + e);
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.codecool.core.render;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Puts the terminal to raw mode for the time the app runs
+ * and restores its original state afterwards.
+ * <p>
+ * The original state is saved and raw mode is applied by one stty process,
+ * which is waited for, so the first frame is rendered to a terminal
+ * already in raw mode. The state is restored by {@link #restore()},
+ * or by a shutdown hook if the JVM exits without calling it.
+ */
+
+class TerminalSession {
+
+    /**
+     * The longest time an stty process is waited for.
+     */
+    private static final long STTY_TIMEOUT_MILLIS = 1000;
+
+    /**
+     * Prints the current state then sets raw mode.
+     */
+    private static final String SAVE_AND_SET_RAW = "stty -g && stty raw -echo";
+
+    /**
+     * The terminal device stty runs on.
+     */
+    private final File tty;
+
+    /**
+     * Restores the terminal when the JVM exits before {@link #restore()}.
+     */
+    private final Thread shutdownHook = new Thread(this::restore, "terminal-restore");
+
+    /**
+     * The state printed by stty -g, null while the session isn't active.
+     */
+    private String savedState;
+
+    /**
+     * Constructs a TerminalSession of the controlling terminal.
+     */
+    TerminalSession() {
+        this(new File("/dev/tty"));
+    }
+
+    /**
+     * Constructs a TerminalSession of the specified terminal device.
+     *
+     * @param tty the terminal device stty runs on.
+     */
+    TerminalSession(File tty) {
+        this.tty = tty;
+    }
+
+    /**
+     * Saves the state of the terminal and sets it to raw mode,
+     * so input is read without the need to push ENTER every time.
+     * It does nothing if the session is already active.
+     *
+     * @return true if the terminal is in raw mode.
+     */
+    synchronized boolean start() {
+        if (savedState != null) {
+            return true;
+        }
+        try {
+            String state = runStty(SAVE_AND_SET_RAW).trim();
+            if (!state.matches("[A-Za-z0-9:=]+")) {
+                return false;
+            }
+            savedState = state;
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+            return true;
+        } catch (Exception e) {
+            System.err.println("Error at TerminalSession.start()\n" + e);
+            return false;
+        }
+    }
+
+    /**
+     * Restores the state saved by {@link #start()},
+     * it does nothing if the session isn't active.
+     */
+    synchronized void restore() {
+        if (savedState == null) {
+            return;
+        }
+        try {
+            runStty("stty " + savedState);
+        } catch (Exception e) {
+            System.err.println("Error at TerminalSession.restore()\n" + e);
+        }
+        savedState = null;
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // the JVM is already shutting down
+            }
+        }
+    }
+
+    /**
+     * @return true if the terminal is in raw mode and will be restored.
+     */
+    synchronized boolean isActive() {
+        return savedState != null;
+    }
+
+    /**
+     * Runs the stty commands on {@link #tty} and waits for them.
+     *
+     * @param command the shell command to run
+     * @return what the command printed.
+     * @throws Exception if the command can't be run or it fails.
+     */
+    private String runStty(String command) throws Exception {
+        Process process = new ProcessBuilder("/bin/sh", "-c", command)
+                .redirectInput(tty)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream inputStream = process.getInputStream()) {
+            byte[] bytes = new byte[256];
+            int length;
+            while ((length = inputStream.read(bytes)) != -1) {
+                output.write(bytes, 0, length);
+            }
+        }
+
+        if (!process.waitFor(STTY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            process.destroy();
+            throw new IllegalStateException("stty timed out");
+        }
+        if (process.exitValue() != 0) {
+            throw new IllegalStateException("stty exited with " + process.exitValue());
+        }
+        return output.toString("US-ASCII");
+    }
+}
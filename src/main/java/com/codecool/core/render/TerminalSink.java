@@ -0,0 +1,208 @@
+package com.codecool.core.render;
+
+/**
+ * Prints the frames to the terminal with ANSI escapes.
+ * <p>
+ * While it's open, the terminal is in raw mode and the cursor is hidden.
+ */
+
+public class TerminalSink implements RenderSink {
+
+    /**
+     * The number of unchanged cells between two changed ones
+     * up to which they are still printed in one run.
+     */
+    private static final int MAX_DIFF_GAP = 8;
+
+    /**
+     * Moves the cursor home and clears the terminal screen.
+     */
+    private static final String CLEAR_SCREEN = "\033[H\033[2J";
+
+    /**
+     * Determines how the frames are put on the terminal.
+     */
+    private RenderMode renderMode;
+
+    /**
+     * Encodes the frames and writes them to the terminal.
+     */
+    private TerminalWriter terminalWriter;
+
+    /**
+     * Puts the terminal to raw mode and restores it on {@link #close()},
+     * null if the terminal state is left alone.
+     */
+    private TerminalSession terminalSession;
+
+    /**
+     * The previous frame, used in {@link RenderMode#DIFF}
+     * to find the cells which have to be printed again.
+     */
+    private Canvas previousFrame;
+
+    /**
+     * True if the next frame has to be printed whole, see {@link #invalidate()}.
+     */
+    private volatile boolean isInvalidated;
+
+    /**
+     * Constructs a TerminalSink which clears the screen and prints every frame whole.
+     */
+    public TerminalSink() {
+        this(RenderMode.FULL);
+    }
+
+    /**
+     * Constructs a TerminalSink with the specified param.
+     *
+     * @param renderMode determines how the frames are put on the terminal.
+     */
+    public TerminalSink(RenderMode renderMode) {
+        this(renderMode, new TerminalWriter(), new TerminalSession());
+    }
+
+    /**
+     * Constructs a TerminalSink with the specified params.
+     *
+     * @param renderMode      determines how the frames are put on the terminal.
+     * @param terminalWriter  writes the frames to the terminal.
+     * @param terminalSession sets the terminal to raw mode, null to leave it alone.
+     */
+    TerminalSink(RenderMode renderMode, TerminalWriter terminalWriter, TerminalSession terminalSession) {
+        this.renderMode = renderMode;
+        this.terminalWriter = terminalWriter;
+        this.terminalSession = terminalSession;
+    }
+
+    /**
+     * Prepares the terminal window to be able to render flawlessly,
+     * and read input properly during the app is running.
+     */
+    @Override
+    public void open(int width, int height) {
+        this.previousFrame = new Canvas(width, height);
+        terminalWriter.ensureCapacity(getMaxFrameSize(width, height));
+        invalidate();
+
+        terminalWriter.writeAscii("\033[?25l\n");
+        terminalWriter.flush();
+        if (terminalSession != null) {
+            terminalSession.start();
+        }
+        terminalWriter.writeAscii(CLEAR_SCREEN);
+        terminalWriter.flush();
+    }
+
+    /**
+     * Writes the frame to the terminal, in {@link RenderMode#DIFF}
+     * only the cells which changed since the previous frame.
+     */
+    @Override
+    public void write(Canvas frame) {
+        if (isInvalidated) {
+            isInvalidated = false;
+            this.previousFrame.fill('\0');
+        }
+
+        if (renderMode == RenderMode.DIFF) {
+            writeCanvasDiff(frame);
+        } else {
+            terminalWriter.writeAscii(CLEAR_SCREEN);
+            writeCanvasContent(frame);
+        }
+        terminalWriter.flush();
+    }
+
+    /**
+     * Iterates over the frame and writes every row of it to {@link #terminalWriter}.
+     */
+    private void writeCanvasContent(Canvas frame) {
+        char[] cells = frame.getCells();
+        for (int i = 0; i < frame.getHeight(); i++) {
+            terminalWriter.write(cells, i * frame.getWidth(), frame.getWidth());
+            terminalWriter.writeAscii("\r\n");
+        }
+    }
+
+    /**
+     * Compares the frame with {@link #previousFrame} row by row
+     * and writes the escapes which move the cursor to every run of changed cells
+     * and prints only them, then copies the frame to the previous one at once.
+     * <p>
+     * Changed cells separated by less than {@link #MAX_DIFF_GAP} unchanged ones
+     * are printed in one run, because reprinting a few cells
+     * is cheaper than moving the cursor again.
+     */
+    private void writeCanvasDiff(Canvas frame) {
+        int width = frame.getWidth();
+        char[] cells = frame.getCells();
+        char[] previousCells = this.previousFrame.getCells();
+        for (int y = 0; y < frame.getHeight(); y++) {
+            int rowStart = y * width;
+            int rowEnd = rowStart + width;
+
+            int i = rowStart;
+            while (i < rowEnd) {
+                if (cells[i] == previousCells[i]) {
+                    i++;
+                    continue;
+                }
+
+                int runStart = i;
+                int runEnd = i;
+                for (int next = i + 1; next < rowEnd && next - runEnd <= MAX_DIFF_GAP; next++) {
+                    if (cells[next] != previousCells[next]) {
+                        runEnd = next;
+                    }
+                }
+
+                terminalWriter.writeCursorPosition(y + 1, runStart - rowStart + 1);
+                terminalWriter.write(cells, runStart, runEnd - runStart + 1);
+                i = runEnd + 1;
+            }
+        }
+        this.previousFrame.copyFrom(frame);
+    }
+
+    /**
+     * The largest frame in bytes is a full render, or a diff
+     * where every run is as short as possible.
+     *
+     * @return the size of the largest frame in bytes.
+     */
+    private int getMaxFrameSize(int width, int height) {
+        int fullFrame = CLEAR_SCREEN.length() + height * (width * TerminalWriter.MAX_CHARACTER_SIZE + 2);
+        int runsPerRow = width / (MAX_DIFF_GAP + 1) + 1;
+        int diffFrame = height * (width * TerminalWriter.MAX_CHARACTER_SIZE
+                + runsPerRow * TerminalWriter.MAX_CURSOR_POSITION_SIZE);
+        return Math.max(fullFrame, diffFrame);
+    }
+
+    /**
+     * Forces the next {@link RenderMode#DIFF} frame to print every cell,
+     * e.g. when the terminal screen was changed by something else.
+     */
+    @Override
+    public void invalidate() {
+        this.isInvalidated = true;
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return terminalWriter.getBytesWritten();
+    }
+
+    /**
+     * Shows the cursor and resets the terminal
+     * back to the state it was in before the app.
+     */
+    @Override
+    public void close() {
+        terminalWriter.writeAscii("\033[?25h\n");
+        terminalWriter.flush();
+        if (terminalSession != null) {
+            terminalSession.restore();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.codecool.core.render;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+
+/**
+ * Writes the output of View to the terminal.
+ * <p>
+ * Characters are UTF-8 encoded straight into one preallocated byte buffer,
+ * which is written to the output by a single call in {@link #flush()},
+ * so a frame allocates nothing and costs one syscall.
+ * <br>
+ * Characters outside of the Basic Multilingual Plane are written as '?',
+ * since a canvas cell holds one char.
+ */
+
+class TerminalWriter {
+
+    /**
+     * The most bytes a canvas character takes in UTF-8.
+     */
+    static final int MAX_CHARACTER_SIZE = 3;
+
+    /**
+     * The most bytes a cursor position escape takes.
+     */
+    static final int MAX_CURSOR_POSITION_SIZE = 24;
+
+    /**
+     * Where the buffer is written on {@link #flush()}.
+     */
+    private OutputStream out;
+
+    /**
+     * Holds the encoded bytes until {@link #flush()}.
+     */
+    private byte[] buffer = new byte[0];
+
+    /**
+     * The number of bytes in {@link #buffer}.
+     */
+    private int position;
+
+    /**
+     * The number of bytes written to the output, it's read by other threads.
+     */
+    private volatile long bytesWritten;
+
+    /**
+     * Constructs a TerminalWriter which writes straight to the standard output file descriptor.
+     */
+    TerminalWriter() {
+        this(new FileOutputStream(FileDescriptor.out));
+    }
+
+    /**
+     * Constructs a TerminalWriter with the specified output.
+     *
+     * @param out where the buffer is written.
+     */
+    TerminalWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Grows the buffer if it's smaller than the given capacity,
+     * it should be called when the size of the canvas changes.
+     *
+     * @param capacity the size of the largest frame in bytes.
+     */
+    void ensureCapacity(int capacity) {
+        if (buffer.length < capacity) {
+            flush();
+            buffer = new byte[capacity];
+        }
+    }
+
+    /**
+     * Encodes one character to the buffer.
+     *
+     * @param character that will be written
+     */
+    void write(char character) {
+        if (position + MAX_CHARACTER_SIZE > buffer.length) {
+            flush();
+        }
+
+        if (character < 0x80) {
+            buffer[position++] = (byte) character;
+        } else if (character < 0x800) {
+            buffer[position++] = (byte) (0xC0 | (character >> 6));
+            buffer[position++] = (byte) (0x80 | (character & 0x3F));
+        } else if (Character.isSurrogate(character)) {
+            buffer[position++] = '?';
+        } else {
+            buffer[position++] = (byte) (0xE0 | (character >> 12));
+            buffer[position++] = (byte) (0x80 | ((character >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (character & 0x3F));
+        }
+    }
+
+    /**
+     * Encodes a range of characters to the buffer.
+     *
+     * @param characters that will be written
+     * @param offset     of the first character
+     * @param length     the number of characters
+     */
+    void write(char[] characters, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            write(characters[i]);
+        }
+    }
+
+    /**
+     * Writes a string of control characters, e.g. an escape sequence.
+     *
+     * @param ascii the string that will be written
+     */
+    void writeAscii(String ascii) {
+        for (int i = 0; i < ascii.length(); i++) {
+            write(ascii.charAt(i));
+        }
+    }
+
+    /**
+     * Writes the escape sequence which moves the cursor.
+     *
+     * @param row    of the cursor, starting from 1
+     * @param column of the cursor, starting from 1
+     */
+    void writeCursorPosition(int row, int column) {
+        if (position + MAX_CURSOR_POSITION_SIZE > buffer.length) {
+            flush();
+        }
+
+        buffer[position++] = '\033';
+        buffer[position++] = '[';
+        writeNumber(row);
+        buffer[position++] = ';';
+        writeNumber(column);
+        buffer[position++] = 'H';
+    }
+
+    /**
+     * Writes the decimal digits of a non negative number.
+     */
+    private void writeNumber(int number) {
+        int divisor = 1;
+        while (number / divisor >= 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            buffer[position++] = (byte) ('0' + number / divisor % 10);
+            divisor /= 10;
+        }
+    }
+
+    /**
+     * Writes the buffer to the output with a single call
+     * and empties it. Writes nothing if the buffer is empty.
+     */
+    void flush() {
+        if (position == 0) {
+            return;
+        }
+
+        try {
+            out.write(buffer, 0, position);
+            out.flush();
+            bytesWritten += position;
+        } catch (Exception e) {
+            System.err.println("Error at TerminalWriter.flush()\n" + e);
+        }
+        position = 0;
+    }
+
+    /**
+     * @return the number of bytes written to the output.
+     */
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+}
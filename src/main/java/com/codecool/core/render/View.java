@@ -1,6 +1,10 @@
 package com.codecool.core.render;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Abstracts away the render functionality for app.
@@ -8,7 +12,7 @@ import java.util.List;
  * where the object will be drawn in {@link #render()}
  * More over it's manages the time between renders,
  * by calling {@link Thread#sleep(long)}
- * and sets the terminal to certain state by {@link #prepareTerminalWindowToApp()}
+ * and puts the frames to a {@link RenderSink}, by default to the terminal.
  */
 
 public class View<T extends Renderable> {
@@ -24,14 +28,30 @@ public class View<T extends Renderable> {
     private int height;
 
     /**
-     * The intended time between renders.
+     * The intended time between renders,
+     * 0 if the caller manages the timing itself.
      */
     private int renderSleepTime;
 
     /**
      * The internal canvas where object and animation will be drawn.
      */
-    private char[][] canvas;
+    private Canvas canvas;
+
+    /**
+     * Where the composed frames are put.
+     */
+    private RenderSink renderSink;
+
+    /**
+     * If it's set, the frames are written by its output thread.
+     */
+    private FramePipeline framePipeline;
+
+    /**
+     * If it's set, every frame is recorded into a file too.
+     */
+    private FrameRecorder frameRecorder;
 
     /**
      * Reference of the object in app.
@@ -43,11 +63,63 @@ public class View<T extends Renderable> {
      */
     private List<T> animations;
 
+    /**
+     * If it's set, only the app objects it finds on the screen are drawn.
+     */
+    private RegionIndex<T> regionIndex;
+
+    /**
+     * Reused to collect the animations and the app objects drawn,
+     * so they can be ordered by their z-index.
+     */
+    private List<T> visibleAppObjects = new ArrayList<>();
+
+    /**
+     * Orders {@link #visibleAppObjects} by their z-index in every frame without sorting them.
+     */
+    private ZIndexBuckets<T> zIndexBuckets = new ZIndexBuckets<>();
+
+    /**
+     * The layers drawn below and above the app objects, ordered by their depth.
+     */
+    private List<Layer<T>> layers = new ArrayList<>();
+
+    /**
+     * If it's true only the regions where
+     * {@link DirtyTrackable} objects have changed are repainted.
+     */
+    private boolean isDirtyTracking;
+
+    /**
+     * The regions of the canvas which have to be repainted in the current frame.
+     */
+    private DirtyRegion dirtyRegion;
+
+    /**
+     * What was drawn by each object in the last frame.
+     */
+    private Map<T, RenderRecord> renderRecords = new IdentityHashMap<>();
+
+    /**
+     * The values of {@link #renderRecords}, to go through them without an iterator.
+     */
+    private List<RenderRecord> renderRecordList = new ArrayList<>();
+
     /**
      * The number of frames since app has been started.
      */
     private int frameCounter = 0;
 
+    /**
+     * The time spent drawing the last frame in nanoseconds.
+     */
+    private long lastComposeTime;
+
+    /**
+     * The time spent writing the last frame in nanoseconds.
+     */
+    private long lastWriteTime;
+
     /**
      * Constructs a View with the specified params.
      *
@@ -58,187 +130,410 @@ public class View<T extends Renderable> {
      * @param renderSleepTime is the intended time between renders.
      */
     public View(int height, int width, List<T> appObjects, List<T> animations, int renderSleepTime) {
+        this(height, width, appObjects, animations, renderSleepTime, RenderMode.FULL);
+    }
+
+    /**
+     * Constructs a View with the specified params.
+     *
+     * @param height          is the height of the internal canvas.
+     * @param width           is the width of the internal canvas.
+     * @param appObjects      are a reference of the appObject from app.
+     * @param animations      are a reference of the appObject from app.
+     * @param renderSleepTime is the intended time between renders, 0 to not sleep at all.
+     * @param renderMode      determines how the canvas is put on the terminal.
+     */
+    public View(int height, int width, List<T> appObjects, List<T> animations, int renderSleepTime,
+                RenderMode renderMode) {
+        this(height, width, appObjects, animations, renderSleepTime, new TerminalSink(renderMode));
+    }
+
+    /**
+     * Constructs a View with the specified params.
+     *
+     * @param height          is the height of the internal canvas.
+     * @param width           is the width of the internal canvas.
+     * @param appObjects      are a reference of the appObject from app.
+     * @param animations      are a reference of the appObject from app.
+     * @param renderSleepTime is the intended time between renders, 0 to not sleep at all.
+     * @param renderSink      where the composed frames are put.
+     */
+    public View(int height, int width, List<T> appObjects, List<T> animations, int renderSleepTime,
+                RenderSink renderSink) {
         this.height = height;
         this.width = width;
-        this.canvas = new char[height][width];
+        this.canvas = new Canvas(width, height);
+        this.dirtyRegion = new DirtyRegion(width, height);
         this.appObjects = appObjects;
         this.animations = animations;
         this.renderSleepTime = renderSleepTime;
+        this.renderSink = renderSink;
         this.initView();
     }
 
     /**
      * It's prepares the View for render
-     * and the terminal window.
+     * and opens the sink.
      */
     private void initView() {
         clearCanvas();
-        prepareTerminalWindowToApp();
+        renderSink.open(this.width, this.height);
     }
 
     /**
      * This is where the render takes place.
      */
     public void render() {
-        clearTerminalScreen();
-        clearCanvas();
-        drawOnCanvas(animations);
-        drawOnCanvas(appObjects);
-        System.out.print(getCanvasContent());
-
-        try {
-            Thread.sleep(renderSleepTime);
-        } catch (Exception e) {
-            System.err.println("Error at View.render()\n" + e);
+        long composeStart = System.nanoTime();
+        if (isDirtyTracking) {
+            composeChanges();
+        } else {
+            composeAll();
+        }
+
+        long writeStart = System.nanoTime();
+        lastComposeTime = writeStart - composeStart;
+        if (framePipeline != null) {
+            framePipeline.submit(canvas);
+        } else {
+            renderSink.write(canvas);
+        }
+        if (frameRecorder != null) {
+            frameRecorder.write(canvas);
+        }
+        lastWriteTime = System.nanoTime() - writeStart;
+
+        if (renderSleepTime > 0) {
+            try {
+                Thread.sleep(renderSleepTime);
+            } catch (Exception e) {
+                System.err.println("Error at View.render()\n" + e);
+            }
         }
 
         frameCounter++;
     }
 
     /**
-     * Drawing renderable objects to canvas.
+     * Clears the canvas and draws every object on it,
+     * the layers below, the animations and the app objects
+     * in the order of their z-index, then the layers above.
      */
-    private void drawOnCanvas(List<T> renderables) {
-        for (T renderable : renderables) {
-            RenderData renderData = renderable.getRenderData();
-
-            if (renderData.renderSymbols != null
-                    && isOnScreenBasedOnPosition(renderData)) {
-
-                for (int y = 0; y < renderData.renderSymbols.length; y++) {
-                    if ((renderData.yPos + y) < this.height) {
-                        for (int x = 0; x < renderData.renderSymbols[y].length; x++) {
-                            if ((renderData.xPos + x) < this.width) {
-                                drawCharacterToCanvas(x, y, renderData);
-                            }
-                        }
-                    }
+    private void composeAll() {
+        clearCanvas();
+        drawLayers(false);
+        visibleAppObjects.addAll(animations);
+        if (regionIndex != null) {
+            regionIndex.queryRegion(0, 0, this.width, this.height, visibleAppObjects);
+        } else {
+            visibleAppObjects.addAll(appObjects);
+        }
+        drawInZIndexOrder(visibleAppObjects);
+        drawLayers(true);
+    }
+
+    /**
+     * Finds the regions where objects have moved, changed, appeared or disappeared
+     * since the last frame, and clears and redraws only those.
+     * <p>
+     * Falls back to {@link #composeAll()} if an object can't tell its changes,
+     * or the changes cover most of the canvas.
+     */
+    private void composeChanges() {
+        for (int i = 0; i < layers.size(); i++) {
+            Layer<T> layer = layers.get(i);
+            if (!layer.isStatic()) {
+                findChanges(layer.getRenderables());
+            } else if (layer.isChanged()) {
+                dirtyRegion.addAll();
+            }
+        }
+        findChanges(animations);
+        findChanges(appObjects);
+        findRemovedObjects();
+
+        if (dirtyRegion.isFull()) {
+            composeAll();
+        } else {
+            for (int i = 0; i < dirtyRegion.getCount(); i++) {
+                int xPos = dirtyRegion.getX(i);
+                int yPos = dirtyRegion.getY(i);
+                int regionWidth = dirtyRegion.getWidth(i);
+                int regionHeight = dirtyRegion.getHeight(i);
+
+                canvas.setClip(xPos, yPos, regionWidth, regionHeight);
+                canvas.fill(xPos, yPos, regionWidth, regionHeight, ' ');
+                drawLayersOverlapping(false, xPos, yPos, regionWidth, regionHeight);
+                collectOverlapping(animations, xPos, yPos, regionWidth, regionHeight);
+                if (regionIndex != null) {
+                    regionIndex.queryRegion(xPos, yPos, regionWidth, regionHeight, visibleAppObjects);
+                } else {
+                    collectOverlapping(appObjects, xPos, yPos, regionWidth, regionHeight);
                 }
+                drawInZIndexOrder(visibleAppObjects);
+                drawLayersOverlapping(true, xPos, yPos, regionWidth, regionHeight);
+            }
+            canvas.clearClip();
+        }
+        dirtyRegion.clear();
+    }
+
+    /**
+     * Compares the objects with their {@link #renderRecords},
+     * and adds both the old and the new bounds of the changed ones to {@link #dirtyRegion}.
+     */
+    private void findChanges(List<T> renderables) {
+        for (int i = 0; i < renderables.size(); i++) {
+            T renderable = renderables.get(i);
+            if (!(renderable instanceof DirtyTrackable) || !((DirtyTrackable) renderable).isDirtyTrackable()) {
+                dirtyRegion.addAll();
+                continue;
+            }
+
+            DirtyTrackable trackable = (DirtyTrackable) renderable;
+            RenderRecord record = renderRecords.get(renderable);
+            if (record == null) {
+                record = new RenderRecord(renderable, renderRecordList.size());
+                renderRecords.put(renderable, record);
+                renderRecordList.add(record);
+            } else if (record.isSameAs(trackable)) {
+                record.lastSeenFrame = frameCounter;
+                continue;
+            } else {
+                dirtyRegion.add(record.xPos, record.yPos, record.width, record.height);
+            }
+
+            record.update(trackable);
+            record.lastSeenFrame = frameCounter;
+            dirtyRegion.add(record.xPos, record.yPos, record.width, record.height);
+        }
+    }
+
+    /**
+     * Adds the bounds of the objects which were not drawn
+     * in this frame to {@link #dirtyRegion}, and forgets them.
+     */
+    private void findRemovedObjects() {
+        for (int i = renderRecordList.size() - 1; i >= 0; i--) {
+            RenderRecord record = renderRecordList.get(i);
+            if (record.lastSeenFrame == frameCounter) {
+                continue;
+            }
+
+            dirtyRegion.add(record.xPos, record.yPos, record.width, record.height);
+            renderRecords.remove(record.renderable);
+            RenderRecord last = renderRecordList.remove(renderRecordList.size() - 1);
+            if (last != record) {
+                renderRecordList.set(record.listIndex, last);
+                last.listIndex = record.listIndex;
+            }
+        }
+    }
+
+    /**
+     * Draws the objects overlapping the given region to canvas.
+     */
+    private void drawOverlapping(List<T> renderables, int xPos, int yPos, int regionWidth, int regionHeight) {
+        for (int i = 0; i < renderables.size(); i++) {
+            if (isOverlapping(renderables.get(i), xPos, yPos, regionWidth, regionHeight)) {
+                renderables.get(i).render(canvas);
+            }
+        }
+    }
+
+    /**
+     * Adds the objects overlapping the given region to {@link #visibleAppObjects}.
+     */
+    private void collectOverlapping(List<T> renderables, int xPos, int yPos, int regionWidth, int regionHeight) {
+        for (int i = 0; i < renderables.size(); i++) {
+            if (isOverlapping(renderables.get(i), xPos, yPos, regionWidth, regionHeight)) {
+                visibleAppObjects.add(renderables.get(i));
+            }
+        }
+    }
+
+    /**
+     * Only called on {@link DirtyTrackable} objects, the others make the whole canvas repainted.
+     */
+    private boolean isOverlapping(T renderable, int xPos, int yPos, int regionWidth, int regionHeight) {
+        DirtyTrackable trackable = (DirtyTrackable) renderable;
+        return trackable.getRenderX() < xPos + regionWidth && xPos < trackable.getRenderX() + trackable.getRenderWidth()
+                && trackable.getRenderY() < yPos + regionHeight && yPos < trackable.getRenderY() + trackable.getRenderHeight();
+    }
+
+    /**
+     * Puts the objects in the buckets of their z-index, draws them to canvas, then clears the list.
+     */
+    private void drawInZIndexOrder(List<T> renderables) {
+        zIndexBuckets.addAll(renderables);
+        renderables.clear();
+        zIndexBuckets.draw(canvas);
+    }
+
+    /**
+     * Draws the layers below or above the app objects to canvas.
+     */
+    private void drawLayers(boolean isAbove) {
+        for (int i = 0; i < layers.size(); i++) {
+            if ((layers.get(i).getDepth() >= 0) == isAbove) {
+                layers.get(i).draw(canvas);
             }
         }
     }
 
     /**
-     * Draws one character on the screen,
-     * relativeX and Y is relative to
-     * {@link RenderData#xPos} and {@link RenderData#yPos}
+     * Draws the layers below or above the app objects to the given region of canvas,
+     * only the objects of the dynamic layers overlapping the region are visited.
      */
-    private void drawCharacterToCanvas(int relativeX, int relativeY, RenderData renderData) {
-        int offsettedXPos = renderData.xPos + relativeX;
-        int offsettedYPos = renderData.yPos + relativeY;
-        char character = renderData.renderSymbols[relativeY][relativeX];
-        this.canvas[offsettedYPos][offsettedXPos] = character;
+    private void drawLayersOverlapping(boolean isAbove, int xPos, int yPos, int regionWidth, int regionHeight) {
+        for (int i = 0; i < layers.size(); i++) {
+            Layer<T> layer = layers.get(i);
+            if ((layer.getDepth() >= 0) != isAbove) {
+                continue;
+            }
+            if (layer.isStatic()) {
+                layer.draw(canvas);
+            } else {
+                layer.sortByZIndex();
+                drawOverlapping(layer.getRenderables(), xPos, yPos, regionWidth, regionHeight);
+            }
+        }
     }
 
     /**
-     * Checks if the given object is on the screen or not.
+     * Drawing renderable objects to canvas.
      */
-    private boolean isOnScreenBasedOnPosition(RenderData renderData) {
-        return (renderData.xPos >= 0 && renderData.xPos <= this.width)
-                && (renderData.yPos >= 0 && renderData.yPos <= this.height);
+    private void drawOnCanvas(List<T> renderables) {
+        for (int i = 0; i < renderables.size(); i++) {
+            renderables.get(i).render(canvas);
+        }
     }
 
     /**
      * Iterates over {@link #canvas} and builds a string from it.
      */
     private String getCanvasContent() {
-        StringBuilder canvasContent = new StringBuilder();
+        StringBuilder canvasContent = new StringBuilder(this.height * (this.width + 2));
+        char[] cells = this.canvas.getCells();
         for (int i = 0; i < this.height; i++) {
-            StringBuilder row = new StringBuilder();
-            for (int j = 0; j < this.width; j++) {
-                row.append(this.canvas[i][j]);
-            }
-            canvasContent.append(row.toString()).append("\r\n");
+            canvasContent.append(cells, i * this.width, this.width).append("\r\n");
         }
         return canvasContent.toString();
     }
 
+    /**
+     * Forces the sink to write the next frame whole,
+     * e.g. when the terminal screen was changed by something else.
+     */
+    public void invalidate() {
+        renderSink.invalidate();
+    }
+
     /**
      * Fills {@link #canvas} with empty spaces.
      */
     private void clearCanvas() {
-        for (int i = 0; i < this.height; i++) {
-            for (int j = 0; j < this.width; j++) {
-                this.canvas[i][j] = ' ';
-            }
-        }
+        this.canvas.fill(' ');
     }
 
     /**
-     * Clears the terminal screen.
+     * Waits for the last frame and closes the sink,
+     * the terminal is reset back to the state it was in before the app.
      */
-    private void clearTerminalScreen() {
-        System.out.print("\033[H\033[2J");
+    public void stop() {
+        stopRecording();
+        setPipelined(false);
+        renderSink.close();
     }
 
     /**
-     * Hides the cursor from terminal.
+     * Starts recording the frames into a file, which can be played back by {@link FramePlayer}.
+     * The recording that was already running is stopped.
+     *
+     * @param path of the file, it is overwritten.
+     * @throws IOException if the file can't be opened.
      */
-    private void hideCursor() {
-        System.out.println("\033[?25l");
+    public void startRecording(String path) throws IOException {
+        stopRecording();
+        frameRecorder = new FrameRecorder(path);
+        frameRecorder.open(this.width, this.height);
     }
 
     /**
-     * Shows the terminal cursor.
+     * Stops recording the frames and closes the file, if a recording is running.
      */
-    private void showCursor() {
-        System.out.println("\033[?25h");
+    public void stopRecording() {
+        if (frameRecorder != null) {
+            frameRecorder.close();
+            frameRecorder = null;
+        }
     }
 
     /**
-     * Sets the terminal to read input constantly,
-     * without the need to push ENTER every time.
+     * Adds a layer which is drawn below the app objects if its depth is negative,
+     * otherwise above them. The layers are drawn in the order of their depth,
+     * the ones with the same depth in the order they were added.
+     *
+     * @param layer that will be drawn in every frame.
      */
-    private void setTerminalToRaw() {
-        try {
-            String[] cmd = {"/bin/sh", "-c", "stty raw </dev/tty"};
-            Runtime.getRuntime().exec(cmd);
-        } catch (Exception e) {
-            System.out.println("Error at View.setTerminalToRaw()\n" + e);
+    public void addLayer(Layer<T> layer) {
+        int index = layers.size();
+        while (index > 0 && layers.get(index - 1).getDepth() > layer.getDepth()) {
+            index--;
         }
+        layers.add(index, layer);
+        dirtyRegion.addAll();
     }
 
     /**
-     * Sets the terminal to edit mode.
+     * @param layer that won't be drawn anymore.
      */
-    private void setTerminalToEdit() {
-        try {
-            String[] cmd = {"/bin/sh", "-c", "stty edit </dev/tty"};
-            Runtime.getRuntime().exec(cmd);
-        } catch (Exception e) {
-            System.out.println("Error at View.setTerminalToRaw()\n" + e);
+    public void removeLayer(Layer<T> layer) {
+        if (layers.remove(layer)) {
+            dirtyRegion.addAll();
         }
     }
 
     /**
-     * Turns the echo on in terminal.
+     * Sets the index which finds the app objects on the screen,
+     * so the ones outside of it are not even visited.
+     *
+     * @param regionIndex which indexes the app objects of the view.
      */
-    private void turnEchoOn() {
-        try {
-            String[] cmd = {"/bin/sh", "-c", "stty echo </dev/tty"};
-            Runtime.getRuntime().exec(cmd);
-        } catch (Exception e) {
-            System.out.println("Error at View.setTerminalToRaw()\n" + e);
-        }
+    public void setRegionIndex(RegionIndex<T> regionIndex) {
+        this.regionIndex = regionIndex;
     }
 
     /**
-     * Prepares the terminal window to be able to render flawlessly,
-     * and read input properly during the app is running.
+     * Turns on or off writing the frames on a dedicated output thread.
+     * <p>
+     * When it's on, {@link #render()} only composes the frame and hands a copy
+     * of it over, so the next frame is computed while this one is written.
+     * Turning it off waits until the last frame is written.
+     *
+     * @param isPipelined true to write the frames on the output thread.
      */
-    private void prepareTerminalWindowToApp() {
-        hideCursor();
-        setTerminalToRaw();
-        clearTerminalScreen();
+    public void setPipelined(boolean isPipelined) {
+        if (isPipelined && framePipeline == null) {
+            framePipeline = new FramePipeline(this.width, this.height, renderSink::write);
+            framePipeline.start();
+        } else if (!isPipelined && framePipeline != null) {
+            framePipeline.stop();
+            framePipeline = null;
+        }
     }
 
     /**
-     * Resets the terminal back to normal.
+     * Turns on or off repainting only the changed regions of the canvas.
+     * If it's off every object is drawn again in every frame.
+     *
+     * @param isDirtyTracking true to repaint only the changed regions.
      */
-    public void stop() {
-        showCursor();
-        setTerminalToEdit();
-        turnEchoOn();
+    public void setDirtyTracking(boolean isDirtyTracking) {
+        this.isDirtyTracking = isDirtyTracking;
+        this.renderRecords.clear();
+        this.renderRecordList.clear();
+        this.dirtyRegion.addAll();
     }
 
     /**
@@ -248,6 +543,29 @@ public class View<T extends Renderable> {
         return this.frameCounter;
     }
 
+    /**
+     * @return the time spent drawing the last frame in nanoseconds.
+     */
+    public long getLastComposeTime() {
+        return this.lastComposeTime;
+    }
+
+    /**
+     * If the view is pipelined it's only the time of handing the frame over.
+     *
+     * @return the time spent writing the last frame in nanoseconds.
+     */
+    public long getLastWriteTime() {
+        return this.lastWriteTime;
+    }
+
+    /**
+     * @return the number of bytes written by the sink.
+     */
+    public long getBytesWritten() {
+        return renderSink.getBytesWritten();
+    }
+
     /**
      * @return the width of the canvas.
      */
@@ -261,4 +579,45 @@ public class View<T extends Renderable> {
     public int getHeight() {
         return this.height;
     }
-}
\ No newline at end of file
+
+    /**
+     * Holds what an object drew in the last frame.
+     */
+    private static class RenderRecord {
+
+        private final Object renderable;
+
+        private int listIndex;
+
+        private int xPos;
+
+        private int yPos;
+
+        private int width;
+
+        private int height;
+
+        private long version;
+
+        private int lastSeenFrame;
+
+        RenderRecord(Object renderable, int listIndex) {
+            this.renderable = renderable;
+            this.listIndex = listIndex;
+        }
+
+        boolean isSameAs(DirtyTrackable trackable) {
+            return version == trackable.getRenderVersion()
+                    && xPos == trackable.getRenderX() && yPos == trackable.getRenderY()
+                    && width == trackable.getRenderWidth() && height == trackable.getRenderHeight();
+        }
+
+        void update(DirtyTrackable trackable) {
+            version = trackable.getRenderVersion();
+            xPos = trackable.getRenderX();
+            yPos = trackable.getRenderY();
+            width = trackable.getRenderWidth();
+            height = trackable.getRenderHeight();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.codecool.core.render;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Orders the objects drawn in a frame by their z-index without sorting them.
+ * <p>
+ * Every z-index has a bucket, the objects are put in the bucket of their z-index
+ * in the order they are added, and the buckets are drawn from the lowest z-index
+ * to the highest. The buckets are kept between the frames, so nothing is allocated
+ * while the z-indices in use don't change, and the ones left empty in a frame
+ * are put aside to be reused by a new z-index.
+ */
+
+class ZIndexBuckets<T extends Renderable> {
+
+    /**
+     * The z-index of each bucket in use, in ascending order.
+     */
+    private int[] zIndices = new int[4];
+
+    /**
+     * The buckets in use, in the order of {@link #zIndices}.
+     */
+    private final List<List<T>> buckets = new ArrayList<>();
+
+    /**
+     * The buckets left empty in a frame, waiting for a new z-index.
+     */
+    private final List<List<T>> spareBuckets = new ArrayList<>();
+
+    /**
+     * The index of the bucket the last object was put in,
+     * the next one is likely to have the same z-index.
+     */
+    private int lastBucket = -1;
+
+    /**
+     * @param renderable that will be drawn after the ones with a lower z-index,
+     *                   and after the ones added before with the same z-index.
+     */
+    void add(T renderable) {
+        int zIndex = renderable.getZIndex();
+        if (lastBucket < 0 || zIndices[lastBucket] != zIndex) {
+            lastBucket = findBucket(zIndex);
+        }
+        buckets.get(lastBucket).add(renderable);
+    }
+
+    /**
+     * @param renderables that will be added in their order.
+     */
+    void addAll(List<T> renderables) {
+        for (int i = 0; i < renderables.size(); i++) {
+            add(renderables.get(i));
+        }
+    }
+
+    /**
+     * Draws the objects in the order of their z-index, then empties the buckets.
+     *
+     * @param canvas where the objects are drawn.
+     */
+    void draw(Canvas canvas) {
+        flush(canvas, null);
+    }
+
+    /**
+     * Moves the objects to the list in the order of their z-index.
+     *
+     * @param target where the objects are added.
+     */
+    void drainTo(List<T> target) {
+        flush(null, target);
+    }
+
+    /**
+     * @return the number of z-indices the buckets are kept for.
+     */
+    int getBucketCount() {
+        return buckets.size();
+    }
+
+    /**
+     * Draws the objects to the canvas, or adds them to the target if there is no canvas,
+     * then empties the buckets and puts aside the ones which were not used.
+     */
+    private void flush(Canvas canvas, List<T> target) {
+        int used = 0;
+        for (int i = 0; i < buckets.size(); i++) {
+            List<T> bucket = buckets.get(i);
+            if (bucket.isEmpty()) {
+                spareBuckets.add(bucket);
+                continue;
+            }
+
+            for (int j = 0; j < bucket.size(); j++) {
+                if (canvas != null) {
+                    bucket.get(j).render(canvas);
+                } else {
+                    target.add(bucket.get(j));
+                }
+            }
+            bucket.clear();
+            zIndices[used] = zIndices[i];
+            buckets.set(used++, bucket);
+        }
+        while (buckets.size() > used) {
+            buckets.remove(buckets.size() - 1);
+        }
+        lastBucket = -1;
+    }
+
+    /**
+     * Searches the bucket of the z-index, and inserts one if there isn't any.
+     *
+     * @return the index of the bucket.
+     */
+    private int findBucket(int zIndex) {
+        int low = 0;
+        int high = buckets.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (zIndices[middle] < zIndex) {
+                low = middle + 1;
+            } else if (zIndices[middle] > zIndex) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        int count = buckets.size();
+        if (count == zIndices.length) {
+            int[] grown = new int[count * 2];
+            System.arraycopy(zIndices, 0, grown, 0, count);
+            zIndices = grown;
+        }
+        System.arraycopy(zIndices, low, zIndices, low + 1, count - low);
+        zIndices[low] = zIndex;
+        List<T> bucket = spareBuckets.isEmpty() ? new ArrayList<>() : spareBuckets.remove(spareBuckets.size() - 1);
+        buckets.add(low, bucket);
+        return low;
+    }
+}
@@ -2,6 +2,7 @@ package com.codecool.core;
 
 import com.codecool.core.animation.Animation;
 import com.codecool.core.animation.FramesNotDefined;
+import com.codecool.core.render.Canvas;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
@@ -234,4 +235,34 @@ class AnimationTest {
         animation.update();
         Mockito.verify(mockApp).removeAnimation(animation);
     }
-}
\ No newline at end of file
+
+    @Test
+    void spacesOfFramesAreTransparent() {
+        App mockApp = Mockito.mock(App.class);
+        Animation animation = new Animation(0, 0, mockApp, true) {
+            @Override
+            public void defineFrames() {
+                this.frames = new char[][][]{
+                        {
+                                {'x', ' ', 'x'},
+                        },
+                        {
+                                {' ', 'y', ' '},
+                        },
+                };
+            }
+        };
+        Canvas canvas = new Canvas(3, 1);
+        canvas.draw(0, 0, new char[][]{{'.', '.', '.'}});
+
+        animation.render(canvas);
+        assertEquals('x', canvas.getCharacter(0, 0));
+        assertEquals('.', canvas.getCharacter(1, 0));
+        assertEquals('x', canvas.getCharacter(2, 0));
+
+        animation.update();
+        animation.render(canvas);
+        assertEquals('y', canvas.getCharacter(1, 0));
+        assertEquals('x', canvas.getCharacter(0, 0));
+    }
+}
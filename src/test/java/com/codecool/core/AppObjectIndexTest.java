@@ -0,0 +1,140 @@
+package com.codecool.core;
+
+import com.codecool.core.buffer.Buffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppObjectIndexTest {
+
+    private AppObjectIndex index;
+    private Buffer<AppObject> buffer;
+    private App mockApp;
+
+    @BeforeEach
+    void init() {
+        index = new AppObjectIndex();
+        buffer = new Buffer<>(new ArrayList<>());
+        buffer.addListener(index);
+        mockApp = Mockito.mock(App.class);
+        Mockito.doAnswer(invocation -> {
+            index.onTagNameChanged(invocation.getArgument(0));
+            return null;
+        }).when(mockApp).onTagNameChanged(Mockito.any());
+    }
+
+    private AppObject createAppObject(String tagName) {
+        AppObject appObject = new AppObject(0, 0, null, mockApp) {
+        };
+        appObject.setTagName(tagName);
+        return appObject;
+    }
+
+    @Test
+    void findsAddedObjectsByTagName() {
+        AppObject enemy1 = createAppObject("enemy");
+        AppObject enemy2 = createAppObject("enemy");
+        AppObject bullet = createAppObject("bullet");
+        buffer.applyForAddition(Arrays.asList(enemy1, bullet, enemy2));
+        buffer.process();
+
+        assertEquals(Arrays.asList(enemy1, enemy2), index.getByTagName("enemy"));
+        assertEquals(Collections.singletonList(bullet), index.getByTagName("bullet"));
+        assertTrue(index.getByTagName("wall").isEmpty());
+    }
+
+    @Test
+    void forgetsRemovedObjects() {
+        AppObject enemy = createAppObject("enemy");
+        buffer.applyForAddition(enemy);
+        buffer.process();
+        List<AppObject> enemies = index.getByTagName("enemy");
+
+        buffer.applyForRemoval(enemy);
+        buffer.process();
+
+        assertTrue(enemies.isEmpty());
+        assertTrue(index.getByClass(enemy.getClass()).isEmpty());
+    }
+
+    @Test
+    void removesObjectsByIdentityAndKeepsTheOrder() {
+        AppObject first = new EqualBullet(mockApp);
+        AppObject second = new EqualBullet(mockApp);
+        AppObject third = new EqualBullet(mockApp);
+        AppObject fourth = new EqualBullet(mockApp);
+        buffer.applyForAddition(Arrays.asList(first, second, third, fourth));
+        buffer.process();
+
+        buffer.applyForRemoval(Arrays.asList(second, fourth));
+        buffer.process();
+
+        List<AppObject> bullets = index.getByTagName("defaultTagName");
+        assertEquals(2, bullets.size());
+        assertSame(first, bullets.get(0));
+        assertSame(third, bullets.get(1));
+    }
+
+    @Test
+    void followsTagNameChanges() {
+        AppObject enemy = createAppObject("enemy");
+        buffer.applyForAddition(enemy);
+        buffer.process();
+
+        enemy.setTagName("deadEnemy");
+
+        assertTrue(index.getByTagName("enemy").isEmpty());
+        assertEquals(Collections.singletonList(enemy), index.getByTagName("deadEnemy"));
+    }
+
+    @Test
+    void findsObjectsByConcreteClass() {
+        AppObject enemy = createAppObject("enemy");
+        Bullet bullet = new Bullet(mockApp);
+        buffer.applyForAddition(Arrays.asList(enemy, bullet));
+        buffer.process();
+
+        assertEquals(Collections.singletonList(bullet), index.getByClass(Bullet.class));
+        assertEquals(Collections.singletonList(enemy), index.getByClass(enemy.getClass()));
+    }
+
+    @Test
+    void returnsReadOnlyViews() {
+        AppObject enemy = createAppObject("enemy");
+        buffer.applyForAddition(enemy);
+        buffer.process();
+
+        assertThrows(UnsupportedOperationException.class, () -> index.getByTagName("enemy").clear());
+    }
+
+    private static class EqualBullet extends AppObject {
+
+        EqualBullet(App app) {
+            super(0, 0, null, app);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof EqualBullet;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+
+    private static class Bullet extends AppObject {
+
+        Bullet(App app) {
+            super(0, 0, null, app);
+        }
+    }
+}
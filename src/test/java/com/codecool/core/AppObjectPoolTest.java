@@ -0,0 +1,153 @@
+package com.codecool.core;
+
+import com.codecool.core.animation.Animation;
+import com.codecool.core.buffer.Buffer;
+import com.codecool.core.render.HeadlessSink;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppObjectPoolTest {
+
+    @Test
+    void reuseRemovedAppObjects() {
+        App app = new App(5, 1, false, 5, 10, 10, new HeadlessSink());
+        AppObjectPool<Bullet> bullets = app.addPool(Bullet.class, () -> new Bullet(app));
+        app.addAppObject(new Gun(app, bullets));
+
+        app.simulate(20, new InputScript());
+
+        assertEquals(20, bullets.getCreatedCount() + bullets.getReusedCount());
+        assertTrue(bullets.getCreatedCount() <= 4);
+        assertSame(bullets, app.getPool(Bullet.class));
+    }
+
+    @Test
+    void restartReusedAnimations() {
+        App app = new App(5, 1, false, 5, 10, 10, new HeadlessSink());
+        AppObjectPool<Explosion> explosions = app.addPool(Explosion.class, () -> new Explosion(app));
+        app.addAppObject(new AppObject(0, 0, null, app) {
+            @Override
+            public void update() {
+                app.addAnimation(explosions.obtain());
+            }
+        });
+
+        app.simulate(20, new InputScript());
+
+        assertTrue(explosions.getCreatedCount() <= 5);
+        assertTrue(explosions.getReusedCount() > 0);
+        assertEquals(0, Explosion.startedMidway);
+    }
+
+    @Test
+    void reuseRemovedAppObjectsAfterTheBuffersAreReplaced() {
+        App app = new App(5, 1, false, 5, 10, 10, new HeadlessSink());
+        List<AppObject> appObjects = new ArrayList<>();
+        List<AppObject> animations = new ArrayList<>();
+        app.setAppObjects(appObjects);
+        app.setAppObjectsBuffer(new Buffer<>(appObjects));
+        app.setAnimations(animations);
+        app.setAnimationBuffer(new Buffer<>(animations));
+        AppObjectPool<Bullet> bullets = app.addPool(Bullet.class, () -> new Bullet(app));
+        AppObjectPool<Explosion> explosions = app.addPool(Explosion.class, () -> new Explosion(app));
+        app.addAppObject(new Gun(app, bullets));
+        app.addAppObject(new AppObject(0, 0, null, app) {
+            @Override
+            public void update() {
+                app.addAnimation(explosions.obtain());
+            }
+        });
+
+        app.simulate(20, new InputScript());
+
+        assertTrue(bullets.getCreatedCount() <= 4);
+        assertTrue(bullets.getReusedCount() > 0);
+        assertTrue(explosions.getCreatedCount() <= 5);
+        assertTrue(explosions.getReusedCount() > 0);
+    }
+
+    @Test
+    void keepAtMostMaxSizeObjects() {
+        AppObjectPool<Bullet> bullets = new AppObjectPool<>(() -> new Bullet(null), 1);
+        Bullet first = bullets.obtain();
+        Bullet second = bullets.obtain();
+
+        bullets.release(first);
+        bullets.release(first);
+        bullets.release(second);
+
+        assertEquals(1, bullets.getFreeCount());
+        assertEquals(1, first.resetCount);
+        assertSame(first, bullets.obtain());
+    }
+
+    private static class Gun extends AppObject {
+
+        private final AppObjectPool<Bullet> bullets;
+
+        Gun(App app, AppObjectPool<Bullet> bullets) {
+            super(0, 0, null, app);
+            this.bullets = bullets;
+        }
+
+        @Override
+        public void update() {
+            Bullet bullet = bullets.obtain();
+            bullet.fire(2);
+            app.addAppObject(bullet);
+        }
+    }
+
+    private static class Bullet extends AppObject {
+
+        private int ticksLeft;
+
+        private int resetCount;
+
+        Bullet(App app) {
+            super(0, 0, new char[][]{{'-'}}, app);
+        }
+
+        void fire(int ticks) {
+            this.ticksLeft = ticks;
+        }
+
+        @Override
+        public void update() {
+            if (--ticksLeft <= 0) {
+                app.removeAppObject(this);
+            }
+        }
+
+        @Override
+        public void onReset() {
+            ticksLeft = 0;
+            resetCount++;
+        }
+    }
+
+    private static class Explosion extends Animation {
+
+        private static int startedMidway;
+
+        Explosion(App app) {
+            super(0, 0, app, false);
+        }
+
+        @Override
+        public void defineFrames() {
+            this.frames = new char[][][]{{{'o'}}, {{'O'}}};
+        }
+
+        @Override
+        public void onAdded() {
+            if (this.renderSymbols != this.frames[0]) {
+                startedMidway++;
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.codecool.core;
+
+import com.codecool.core.render.HeadlessSink;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppSimulationTest {
+
+    @Test
+    void simulateSameStateOnEveryRun() {
+        InputScript inputScript = new InputScript()
+                .press(2, 'd')
+                .type(5, "dd")
+                .press(7, Key.RIGHT);
+
+        String firstRun = simulate(inputScript);
+        inputScript.rewind();
+        String secondRun = simulate(inputScript);
+
+        assertEquals("    @\n", firstRun);
+        assertEquals(firstRun, secondRun);
+    }
+
+    @Test
+    void repaintSymbolsChangedInPlaceUnlessDirtyTracking() {
+        assertEquals("b\n", simulateChangeInPlace(false));
+        assertEquals("a\n", simulateChangeInPlace(true));
+    }
+
+    @Test
+    void reportFramesRun() {
+        App app = new App(5, 1, false, 5, 10, 10, new HeadlessSink());
+
+        SimulationReport report = app.simulate(20, new InputScript());
+
+        assertEquals(20, report.getFrameCount());
+        assertEquals(20, report.getFrameTimes().getCount());
+        assertEquals(20, app.getMetrics().getTickCount());
+        assertTrue(report.getWallTime() >= report.getFrameTimes().getMax());
+    }
+
+    @Test
+    void readInputInParallelOnlyFromTheSnapshot() {
+        App app = new App(5, 1, false, 5, 10, 10, new HeadlessSink());
+        app.setParallelUpdate(true);
+        List<StringBuilder> snapshotReads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            StringBuilder keys = new StringBuilder();
+            snapshotReads.add(keys);
+            app.addAppObject(new ParallelReader(app, keys, false));
+        }
+        StringBuilder serialReads = new StringBuilder();
+        app.addAppObject(new AppObject(0, 0, null, app) {
+            @Override
+            public void update() {
+                for (Character key = app.getInput(); key != null; key = app.getInput()) {
+                    serialReads.append(key);
+                }
+            }
+        });
+
+        app.simulate(4, new InputScript().type(1, "ab").press(2, 'c'));
+
+        assertEquals("abc", serialReads.toString());
+        for (StringBuilder keys : snapshotReads) {
+            assertEquals("abc", keys.toString());
+        }
+
+        App consumingApp = new App(5, 1, false, 5, 10, 10, new HeadlessSink());
+        consumingApp.setParallelUpdate(true);
+        for (int i = 0; i < 8; i++) {
+            consumingApp.addAppObject(new ParallelReader(consumingApp, new StringBuilder(), true));
+        }
+
+        assertThrows(IllegalStateException.class,
+                () -> consumingApp.simulate(4, new InputScript().type(1, "ab")));
+    }
+
+    @Test
+    void scriptKeysPerFrame() {
+        InputScript inputScript = new InputScript().press(1, Key.ENTER).type(1, "ab");
+        InputSnapshot snapshot = new InputSnapshot();
+
+        snapshot.capture(inputScript);
+        assertTrue(snapshot.getEvents().isEmpty());
+
+        snapshot.capture(inputScript);
+        assertTrue(snapshot.isPressed(Key.ENTER));
+        assertTrue(snapshot.isPressed('\r'));
+        assertTrue(snapshot.isPressed('b'));
+        assertEquals(3, snapshot.getEvents().size());
+        assertEquals(1, snapshot.getEvents().get(0).getTimestamp());
+    }
+
+    private String simulateChangeInPlace(boolean isDirtyTracking) {
+        HeadlessSink sink = new HeadlessSink();
+        App app = new App(1, 1, false, 5, 10, 10, sink);
+        app.setDirtyTracking(isDirtyTracking);
+        char[][] symbols = {{'a'}};
+        app.addAppObject(new AppObject(0, 0, symbols, app) {
+            private int updates;
+
+            @Override
+            public void update() {
+                if (++updates == 2) {
+                    symbols[0][0] = 'b';
+                }
+            }
+        });
+        app.simulate(3, new InputScript());
+        return sink.getContent();
+    }
+
+    private String simulate(InputScript inputScript) {
+        HeadlessSink sink = new HeadlessSink();
+        App app = new App(5, 1, false, 5, 10, 10, sink);
+        app.addAppObject(new Player(app));
+        app.simulate(10, inputScript);
+        return sink.getContent();
+    }
+
+    private static class ParallelReader extends AppObject {
+
+        private final StringBuilder keys;
+
+        private final boolean isConsuming;
+
+        ParallelReader(App app, StringBuilder keys, boolean isConsuming) {
+            super(0, 0, null, app);
+            this.keys = keys;
+            this.isConsuming = isConsuming;
+        }
+
+        @Override
+        public void update() {
+            if (isConsuming) {
+                app.getInput();
+            }
+            for (KeyEvent event : app.getInputSnapshot().getEvents()) {
+                keys.append(event.getCharacter());
+            }
+        }
+
+        @Override
+        public boolean isParallelSafe() {
+            return true;
+        }
+    }
+
+    private static class Player extends AppObject {
+
+        Player(App app) {
+            super(0, 0, new char[][]{{'@'}}, app);
+        }
+
+        @Override
+        public void update() {
+            InputSnapshot input = app.getInputSnapshot();
+            int steps = 0;
+            for (KeyEvent event : input.getEvents()) {
+                if (event.getCharacter() == 'd' || event.getKey() == Key.RIGHT) {
+                    steps++;
+                }
+            }
+            if (steps > 0) {
+                setPosition(getXPos() + steps, getYPos());
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.codecool.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameSchedulerTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    private FrameScheduler scheduler;
+
+    @BeforeEach
+    void init() {
+        scheduler = new FrameScheduler(10, 20);
+        scheduler.start(0);
+    }
+
+    @Test
+    void firstTickAndFrameAreDueAtStart() {
+        assertEquals(1, scheduler.getDueTicks(0));
+        assertTrue(scheduler.isFrameDue(0));
+    }
+
+    @Test
+    void nothingIsDueBeforeDeadline() {
+        scheduler.getDueTicks(0);
+        scheduler.isFrameDue(0);
+
+        assertEquals(0, scheduler.getDueTicks(40 * MILLI));
+        assertFalse(scheduler.isFrameDue(40 * MILLI));
+        assertEquals(10 * MILLI, scheduler.getNanosUntilNextEvent(40 * MILLI));
+    }
+
+    @Test
+    void deadlinesDoNotDriftWithLateCalls() {
+        scheduler.getDueTicks(0);
+
+        assertEquals(1, scheduler.getDueTicks(130 * MILLI));
+        assertEquals(0, scheduler.getDueTicks(190 * MILLI));
+        assertEquals(1, scheduler.getDueTicks(200 * MILLI));
+    }
+
+    @Test
+    void catchesUpOnTicksAndSkipsFrames() {
+        scheduler.getDueTicks(0);
+        scheduler.isFrameDue(0);
+
+        assertEquals(3, scheduler.getDueTicks(320 * MILLI));
+        assertTrue(scheduler.isFrameDue(320 * MILLI));
+        assertFalse(scheduler.isFrameDue(330 * MILLI));
+        assertTrue(scheduler.isFrameDue(370 * MILLI));
+    }
+
+    @Test
+    void countsDroppedFrames() {
+        scheduler.isFrameDue(0);
+        scheduler.isFrameDue(50 * MILLI);
+
+        assertEquals(0, scheduler.getDroppedFrames());
+        scheduler.isFrameDue(320 * MILLI);
+        assertEquals(4, scheduler.getDroppedFrames());
+    }
+
+    @Test
+    void dropsTicksWhenTooFarBehind() {
+        scheduler.getDueTicks(0);
+
+        assertEquals(5, scheduler.getDueTicks(5000 * MILLI));
+        assertEquals(0, scheduler.getDueTicks(5050 * MILLI));
+        assertEquals(1, scheduler.getDueTicks(5100 * MILLI));
+    }
+
+    @Test
+    void throwsExceptionIfRateIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new FrameScheduler(0, 10));
+    }
+}
@@ -0,0 +1,82 @@
+package com.codecool.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class InputSnapshotTest {
+
+    private InputSnapshot snapshot;
+
+    private Input input;
+
+    @BeforeEach
+    void init() {
+        snapshot = new InputSnapshot();
+        input = mock(Input.class);
+    }
+
+    @Test
+    void captureKeysAndCharactersPressed() {
+        capture(new KeyEvent(Key.UP, '\0', 0),
+                new KeyEvent(Key.CHARACTER, 'w', 0),
+                new KeyEvent(Key.CHARACTER, '\u00e9', 0));
+
+        assertTrue(snapshot.isPressed(Key.UP));
+        assertTrue(snapshot.isPressed(Key.CHARACTER));
+        assertFalse(snapshot.isPressed(Key.DOWN));
+        assertTrue(snapshot.isPressed('w'));
+        assertTrue(snapshot.isPressed('\u00e9'));
+        assertFalse(snapshot.isPressed('s'));
+        assertFalse(snapshot.isPressed('\0'));
+        assertEquals(Character.valueOf('w'), snapshot.getFirstCharacter());
+        assertEquals(3, snapshot.getEvents().size());
+    }
+
+    @Test
+    void captureReplacesPreviousKeys() {
+        capture(new KeyEvent(Key.CHARACTER, 'w', 0));
+        capture();
+
+        assertFalse(snapshot.isPressed('w'));
+        assertNull(snapshot.getFirstCharacter());
+        assertTrue(snapshot.getEvents().isEmpty());
+    }
+
+    @Test
+    void readCharactersOneByOne() {
+        capture(new KeyEvent(Key.CHARACTER, 'a', 0),
+                new KeyEvent(Key.UP, '\0', 0),
+                new KeyEvent(Key.CHARACTER, 'b', 0));
+
+        assertEquals(Character.valueOf('a'), snapshot.readCharacter());
+        assertEquals(Character.valueOf('b'), snapshot.readCharacter());
+        assertNull(snapshot.readCharacter());
+
+        capture(new KeyEvent(Key.CHARACTER, 'c', 0));
+        assertEquals(Character.valueOf('c'), snapshot.readCharacter());
+    }
+
+    @Test
+    void eventsCannotBeChanged() {
+        capture(new KeyEvent(Key.CHARACTER, 'w', 0));
+
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getEvents().clear());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void capture(KeyEvent... events) {
+        doAnswer(invocation -> {
+            ((List<KeyEvent>) invocation.getArgument(0)).addAll(Arrays.asList(events));
+            return null;
+        }).when(input).drainEvents(any());
+        snapshot.capture(input);
+    }
+}
@@ -0,0 +1,71 @@
+package com.codecool.core;
+
+import com.codecool.core.render.HeadlessSink;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InputTest {
+
+    @Test
+    void leaveTheStreamAloneAfterStop() throws InterruptedException {
+        TypedStream terminal = new TypedStream();
+        Input input = new Input(terminal);
+        input.start();
+
+        terminal.type('a');
+        List<KeyEvent> events = new ArrayList<>();
+        for (int i = 0; i < 100 && events.isEmpty(); i++) {
+            Thread.sleep(10);
+            input.drainEvents(events);
+        }
+        assertEquals('a', events.get(0).getCharacter());
+
+        input.stop();
+        terminal.type('b');
+        Thread.sleep(50);
+
+        assertEquals(1, terminal.available());
+        events.clear();
+        input.drainEvents(events);
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void readTheInputSetOnTheApp() {
+        App app = new App(5, 1, true, 5, 10, 10, new HeadlessSink());
+        app.setInput(new Input(new ByteArrayInputStream(new byte[]{'q'})));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), app::start);
+    }
+
+    /**
+     * A stream of the characters typed, which never ends.
+     */
+    private static class TypedStream extends InputStream {
+
+        private final ConcurrentLinkedQueue<Integer> typed = new ConcurrentLinkedQueue<>();
+
+        void type(char character) {
+            typed.add((int) character);
+        }
+
+        @Override
+        public int read() {
+            Integer next = typed.poll();
+            return next == null ? -1 : next;
+        }
+
+        @Override
+        public int available() {
+            return typed.size();
+        }
+    }
+}
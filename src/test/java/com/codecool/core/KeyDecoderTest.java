@@ -0,0 +1,97 @@
+package com.codecool.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyDecoderTest {
+
+    private KeyDecoder decoder;
+
+    private KeyEventQueue queue;
+
+    @BeforeEach
+    void init() {
+        decoder = new KeyDecoder();
+        queue = new KeyEventQueue(16);
+    }
+
+    @Test
+    void decodeCharactersAndControlKeys() {
+        List<KeyEvent> events = decode("a\r\t\u007f");
+
+        assertEquals(4, events.size());
+        assertEquals(Key.CHARACTER, events.get(0).getKey());
+        assertEquals('a', events.get(0).getCharacter());
+        assertEquals(Key.ENTER, events.get(1).getKey());
+        assertEquals(Key.TAB, events.get(2).getKey());
+        assertEquals(Key.BACKSPACE, events.get(3).getKey());
+    }
+
+    @Test
+    void decodeUtf8Characters() {
+        List<KeyEvent> events = decode("\u00e9\u20ac");
+
+        assertEquals(2, events.size());
+        assertEquals('\u00e9', events.get(0).getCharacter());
+        assertEquals('\u20ac', events.get(1).getCharacter());
+    }
+
+    @Test
+    void decodeEscapeSequences() {
+        List<KeyEvent> events = decode("\033[A\033OB\033[3~\033[1;5C\033OP\033[24~");
+
+        assertEquals(6, events.size());
+        assertEquals(Key.UP, events.get(0).getKey());
+        assertEquals(Key.DOWN, events.get(1).getKey());
+        assertEquals(Key.DELETE, events.get(2).getKey());
+        assertEquals(Key.RIGHT, events.get(3).getKey());
+        assertEquals(Key.F1, events.get(4).getKey());
+        assertEquals(Key.F12, events.get(5).getKey());
+        assertEquals('\0', events.get(0).getCharacter());
+    }
+
+    @Test
+    void decodeSequenceSplitBetweenReads() {
+        decode("\033[");
+        List<KeyEvent> events = decode("D");
+
+        assertEquals(1, events.size());
+        assertEquals(Key.LEFT, events.get(0).getKey());
+    }
+
+    @Test
+    void decodeLoneEscapeWhenFlushed() {
+        assertTrue(decode("\033").isEmpty());
+        assertTrue(decoder.hasPendingEscape());
+
+        decoder.flushPendingEscape(0, queue);
+        List<KeyEvent> events = new ArrayList<>();
+        queue.drainTo(events);
+
+        assertEquals(1, events.size());
+        assertEquals(Key.ESCAPE, events.get(0).getKey());
+        assertFalse(decoder.hasPendingEscape());
+    }
+
+    @Test
+    void dropEventsWhenQueueIsFull() {
+        List<KeyEvent> events = decode("abcdefghijklmnopqrstuvwxyz");
+
+        assertEquals(16, events.size());
+        assertEquals('p', events.get(15).getCharacter());
+    }
+
+    private List<KeyEvent> decode(String input) {
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        decoder.decode(bytes, bytes.length, 0, queue);
+        List<KeyEvent> events = new ArrayList<>();
+        queue.drainTo(events);
+        return events;
+    }
+}
@@ -0,0 +1,53 @@
+package com.codecool.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class KeyDispatcherTest {
+
+    private KeyDispatcher dispatcher;
+
+    @BeforeEach
+    void init() {
+        dispatcher = new KeyDispatcher();
+    }
+
+    @Test
+    void callOnlyHandlersOfPressedKeys() {
+        KeyHandler upHandler = mock(KeyHandler.class);
+        KeyHandler downHandler = mock(KeyHandler.class);
+        KeyHandler wHandler = mock(KeyHandler.class);
+        KeyHandler eHandler = mock(KeyHandler.class);
+        dispatcher.addHandler(Key.UP, upHandler);
+        dispatcher.addHandler(Key.DOWN, downHandler);
+        dispatcher.addHandler('w', wHandler);
+        dispatcher.addHandler('\u00e9', eHandler);
+
+        KeyEvent up = new KeyEvent(Key.UP, '\0', 0);
+        KeyEvent w = new KeyEvent(Key.CHARACTER, 'w', 0);
+        KeyEvent e = new KeyEvent(Key.CHARACTER, '\u00e9', 0);
+        dispatcher.dispatch(Arrays.asList(up, w, w, e));
+
+        verify(upHandler).onKey(up);
+        verify(wHandler, times(2)).onKey(w);
+        verify(eHandler).onKey(e);
+        verify(downHandler, never()).onKey(any());
+    }
+
+    @Test
+    void removedHandlerIsNotCalled() {
+        KeyHandler handler = mock(KeyHandler.class);
+        dispatcher.addHandler('w', handler);
+        dispatcher.removeHandler('w', handler);
+
+        dispatcher.dispatch(Collections.singletonList(new KeyEvent(Key.CHARACTER, 'w', 0)));
+
+        verify(handler, never()).onKey(any());
+    }
+}
@@ -0,0 +1,59 @@
+package com.codecool.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    private LatencyHistogram histogram;
+
+    @BeforeEach
+    void init() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    void bucketsAreContinuousAndCoverTheirValues() {
+        assertEquals(0, LatencyHistogram.getBucketIndex(0));
+        assertEquals(31, LatencyHistogram.getBucketIndex(31));
+        assertEquals(32, LatencyHistogram.getBucketIndex(32));
+        assertEquals(32, LatencyHistogram.getBucketIndex(33));
+
+        long value = 1;
+        while (value > 0 && value < Long.MAX_VALUE / 3) {
+            int index = LatencyHistogram.getBucketIndex(value);
+            assertTrue(LatencyHistogram.getBucketEnd(index) >= value);
+            assertTrue(index == 0 || LatencyHistogram.getBucketEnd(index - 1) < value);
+            value = value * 3 + 1;
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.getBucketEnd(LatencyHistogram.getBucketIndex(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void percentilesAreWithinBucketPrecision() {
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMin());
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(500_500, histogram.getMean());
+        assertEquals(500_000, histogram.getValueAtPercentile(50), 500_000 / 16.0);
+        assertEquals(990_000, histogram.getValueAtPercentile(99), 990_000 / 16.0);
+        assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void resetForgetsValues() {
+        histogram.record(42);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+}
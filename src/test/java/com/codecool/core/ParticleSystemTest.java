@@ -0,0 +1,67 @@
+package com.codecool.core;
+
+import com.codecool.core.render.Canvas;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParticleSystemTest {
+
+    @Test
+    void moveParticlesUntilTheirLifetimeIsOver() {
+        ParticleSystem particles = new ParticleSystem(4, null);
+        particles.emit(1, 1, 1, 0, 2, '*');
+        particles.emit(3, 0, 0, 0.5f, 3, '.');
+
+        particles.update();
+        Canvas canvas = new Canvas(5, 3);
+        particles.render(canvas);
+
+        assertEquals(2, particles.getParticleCount());
+        assertEquals('*', canvas.getCharacter(2, 1));
+        assertEquals('.', canvas.getCharacter(3, 0));
+
+        particles.update();
+        assertEquals(1, particles.getParticleCount());
+
+        particles.update();
+        assertEquals(0, particles.getParticleCount());
+    }
+
+    @Test
+    void trackBoundsOfParticles() {
+        ParticleSystem particles = new ParticleSystem(4, null);
+        particles.setGravity(0, 1);
+        particles.emit(2, 2, 0, 0, 10, 'o');
+        particles.emit(5.5f, 1, 0, 0, 10, 'o');
+        long renderVersion = particles.getRenderVersion();
+
+        particles.update();
+
+        assertEquals(2, particles.getXPos());
+        assertEquals(2, particles.getYPos());
+        assertEquals(4, particles.getRenderWidth());
+        assertEquals(2, particles.getRenderHeight());
+        assertNotEquals(renderVersion, particles.getRenderVersion());
+    }
+
+    @Test
+    void dropParticlesWhenFull() {
+        ParticleSystem particles = new ParticleSystem(1, null);
+
+        assertTrue(particles.emit(0, 0, 0, 0, 1, '*'));
+        assertFalse(particles.emit(0, 0, 0, 0, 1, '*'));
+    }
+
+    @Test
+    void leaveOutParticlesOffTheCanvas() {
+        ParticleSystem particles = new ParticleSystem(2, null);
+        particles.emit(-0.5f, 0, 0, 0, 5, '*');
+        particles.emit(4, 9, 0, 0, 5, '*');
+        Canvas canvas = new Canvas(2, 2);
+
+        particles.render(canvas);
+
+        assertEquals(' ', canvas.getCharacter(0, 0));
+    }
+}
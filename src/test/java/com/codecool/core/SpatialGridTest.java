@@ -0,0 +1,147 @@
+package com.codecool.core;
+
+import com.codecool.core.render.RenderData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpatialGridTest {
+
+    private SpatialGrid grid;
+
+    @BeforeEach
+    void init() {
+        grid = new SpatialGrid(40, 20, 8);
+    }
+
+    private AppObject createAppObject(int xPos, int yPos, char[][] symbols) {
+        AppObject appObject = new AppObject(xPos, yPos, symbols, null) {
+        };
+        grid.onAdded(appObject);
+        return appObject;
+    }
+
+    @Test
+    void findsObjectsOverlappingRegion() {
+        AppObject wide = createAppObject(5, 5, new char[][]{{'a', 'b', 'c', 'd', 'e'}});
+        AppObject far = createAppObject(30, 15, new char[][]{{'x'}});
+        AppObject near = createAppObject(9, 6, new char[][]{{'x'}});
+
+        assertEquals(Arrays.asList(wide, near), grid.queryRegion(8, 4, 4, 4));
+        assertEquals(Collections.singletonList(far), grid.queryRegion(25, 10, 10, 10));
+    }
+
+    @Test
+    void findsObjectsAtPosition() {
+        AppObject big = createAppObject(2, 2, new char[][]{{'a', 'b'}, {'c', 'd'}});
+        createAppObject(10, 10, new char[][]{{'x'}});
+
+        assertEquals(Collections.singletonList(big), grid.objectsAt(3, 3));
+        assertTrue(grid.objectsAt(4, 4).isEmpty());
+    }
+
+    @Test
+    void followsMovedObjects() {
+        AppObject appObject = createAppObject(1, 1, new char[][]{{'x'}});
+        appObject.xPos = 35;
+        appObject.yPos = 18;
+        grid.refresh();
+
+        assertTrue(grid.objectsAt(1, 1).isEmpty());
+        assertEquals(Collections.singletonList(appObject), grid.objectsAt(35, 18));
+    }
+
+    @Test
+    void forgetsRemovedObjects() {
+        AppObject appObject = createAppObject(1, 1, new char[][]{{'x'}});
+        grid.onRemoved(appObject);
+
+        assertTrue(grid.objectsAt(1, 1).isEmpty());
+    }
+
+    @Test
+    void findsObjectsOutsideOfTheGrid() {
+        AppObject appObject = createAppObject(-3, 25, new char[][]{{'x'}});
+
+        assertEquals(Collections.singletonList(appObject), grid.objectsAt(-3, 25));
+        assertTrue(grid.objectsAt(0, 19).isEmpty());
+    }
+
+    @Test
+    void findsNearestObject() {
+        createAppObject(30, 15, new char[][]{{'x'}});
+        AppObject nearest = createAppObject(12, 3, new char[][]{{'x'}});
+        AppObject filtered = createAppObject(3, 3, new char[][]{{'x'}});
+        filtered.setTagName("wall");
+
+        assertEquals(nearest, grid.findNearest(2, 2, x -> !x.getTagName().equals("wall")));
+        assertEquals(filtered, grid.findNearest(2, 2, x -> true));
+        assertNull(grid.findNearest(2, 2, x -> false));
+    }
+
+    @Test
+    void answersQueriesFromSeveralThreads() {
+        for (int i = 0; i < 100; i++) {
+            createAppObject(i * 7 % 40, i * 3 % 20, new char[][]{{'a', 'b', 'c'}, {'d', 'e', 'f'}});
+        }
+        List<List<AppObject>> expected = new ArrayList<>();
+        List<AppObject> expectedNearest = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            expected.add(grid.queryRegion(i, i % 20, 9, 5));
+            expectedNearest.add(grid.findNearest(i, i % 20, x -> x.xPos % 2 == 0));
+        }
+
+        assertTrue(IntStream.range(0, 40_000).parallel().allMatch(i -> {
+            int query = i % 40;
+            return expected.get(query).equals(grid.queryRegion(query, query % 20, 9, 5))
+                    && expectedNearest.get(query) == grid.findNearest(query, query % 20, x -> x.xPos % 2 == 0);
+        }));
+    }
+
+    @Test
+    void keepsAdditionOrderAfterMovesAndRemovals() {
+        List<AppObject> appObjects = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            appObjects.add(createAppObject(i * 13 % 40, i * 7 % 20, new char[][]{{'a', 'b'}, {'c', 'd'}}));
+        }
+        for (int i = 0; i < 200; i += 3) {
+            appObjects.get(i).xPos = (appObjects.get(i).xPos + 17) % 40;
+            appObjects.get(i).yPos = (appObjects.get(i).yPos + 9) % 20;
+        }
+        grid.refresh();
+        List<AppObject> kept = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            if (i % 4 == 1 || i % 4 == 2 || i % 4 == 3 && i > 100) {
+                grid.onRemoved(appObjects.get(i));
+            } else {
+                kept.add(appObjects.get(i));
+            }
+        }
+
+        assertEquals(kept, grid.queryRegion(0, 0, 40, 20));
+        for (AppObject appObject : kept) {
+            assertTrue(grid.objectsAt(appObject.xPos + 1, appObject.yPos + 1).contains(appObject));
+        }
+    }
+
+    @Test
+    void findsObjectsDrawnByRenderDataWhereTheyAreDrawn() {
+        AppObject appObject = new AppObject(0, 0, null, null) {
+            @Override
+            public RenderData getRenderData() {
+                return new RenderData(20, 10, new char[][]{{'a', 'b', 'c'}});
+            }
+        };
+        grid.onAdded(appObject);
+
+        assertTrue(grid.objectsAt(0, 0).isEmpty());
+        assertEquals(Collections.singletonList(appObject), grid.objectsAt(22, 10));
+    }
+}
@@ -0,0 +1,52 @@
+package com.codecool.core.animation;
+
+import com.codecool.core.App;
+import com.codecool.core.render.Canvas;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnimationSpritesTest {
+
+    @Test
+    void shareSpritesOfTheSameFrames() {
+        App mockApp = Mockito.mock(App.class);
+        Explosion first = new Explosion(mockApp);
+        Explosion second = new Explosion(mockApp);
+
+        assertNotSame(first.frames, second.frames);
+        assertSame(first.getSprite(0), second.getSprite(0));
+        assertSame(first.getSprite(1), second.getSprite(1));
+    }
+
+    @Test
+    void drawFramesChangedInPlaceAfterRecompile() {
+        App mockApp = Mockito.mock(App.class);
+        Explosion changed = new Explosion(mockApp);
+        Canvas canvas = new Canvas(1, 1);
+
+        changed.frames[0][0][0] = 'x';
+        changed.render(canvas);
+        assertEquals('o', canvas.getCharacter(0, 0));
+
+        changed.recompileFrames();
+        changed.render(canvas);
+        assertEquals('x', canvas.getCharacter(0, 0));
+
+        new Explosion(mockApp).render(canvas);
+        assertEquals('o', canvas.getCharacter(0, 0));
+    }
+
+    private static class Explosion extends Animation {
+
+        Explosion(App app) {
+            super(0, 0, app, false);
+        }
+
+        @Override
+        public void defineFrames() {
+            this.frames = new char[][][]{{{'o'}}, {{'O'}}};
+        }
+    }
+}
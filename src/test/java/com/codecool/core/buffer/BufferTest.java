@@ -66,4 +66,113 @@ class BufferTest {
 
         assertEquals(0, testTarget.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void removeElementsKeepsOrderOfTheRest(){
+        AppObject stub3 = Mockito.mock(AppObject.class);
+        AppObject stub4 = Mockito.mock(AppObject.class);
+        testTarget.addAll(Arrays.asList(stub1, stub2, stub3, stub4));
+        Mockito.when(stub1.getBufferTag()).thenReturn(BufferTag.REMOVE);
+        Mockito.when(stub3.getBufferTag()).thenReturn(BufferTag.REMOVE);
+        buffer.applyForRemoval(Arrays.asList(stub3, stub1));
+        buffer.process();
+
+        assertEquals(Arrays.asList(stub2, stub4), testTarget);
+    }
+
+    @Test
+    void removeElementNotInTarget(){
+        testTarget.add(stub2);
+        Mockito.when(stub1.getBufferTag()).thenReturn(BufferTag.REMOVE);
+        buffer.applyForRemoval(stub1);
+        buffer.process();
+
+        assertEquals(Arrays.asList(stub2), testTarget);
+    }
+
+    @Test
+    void addAndRemoveElementCancelsOut(){
+        buffer.applyForAddition(stub1);
+        buffer.applyForRemoval(stub1);
+        buffer.process();
+
+        assertEquals(0, testTarget.size());
+    }
+
+    @Test
+    void addElementRepeatedly(){
+        buffer.applyForAddition(stub1);
+        buffer.applyForAddition(stub1);
+        buffer.process();
+        buffer.applyForAddition(stub1);
+        buffer.process();
+
+        assertEquals(Arrays.asList(stub1), testTarget);
+    }
+
+    @Test
+    void removeAndAddElementKeepsIt(){
+        buffer.applyForAddition(stub1);
+        buffer.process();
+        buffer.applyForRemoval(stub1);
+        buffer.applyForAddition(stub1);
+        buffer.process();
+
+        assertEquals(Arrays.asList(stub1), testTarget);
+    }
+
+    @Test
+    void seeTargetReplacedWithTheSameSize(){
+        buffer.applyForAddition(stub1);
+        buffer.process();
+        testTarget.set(0, stub2);
+        buffer.applyForAddition(stub1);
+        buffer.process();
+
+        assertEquals(Arrays.asList(stub2, stub1), testTarget);
+    }
+
+    @Test
+    void keepOwnTargetReadOnly(){
+        Buffer<AppObject> ownBuffer = new Buffer<>();
+        ownBuffer.applyForAddition(stub1);
+        ownBuffer.process();
+
+        assertEquals(Arrays.asList(stub1), ownBuffer.getTarget());
+        assertThrows(UnsupportedOperationException.class, () -> ownBuffer.getTarget().set(0, stub2));
+    }
+
+    @Test
+    void notifiesListenersOncePerElement(){
+        RecordingListener listener = new RecordingListener();
+        buffer.addListener(listener);
+        buffer.applyForAddition(stub1);
+        buffer.applyForAddition(stub1);
+        buffer.applyForAddition(stub2);
+        buffer.applyForRemoval(stub2);
+        buffer.process();
+        buffer.applyForRemoval(stub1);
+        buffer.applyForRemoval(stub1);
+        buffer.process();
+
+        assertEquals(Arrays.asList(stub1), listener.added);
+        assertEquals(Arrays.asList(stub1), listener.removed);
+    }
+
+    private static class RecordingListener implements BufferListener<AppObject> {
+
+        private final List<AppObject> added = new ArrayList<>();
+
+        private final List<AppObject> removed = new ArrayList<>();
+
+        @Override
+        public void onAdded(AppObject element) {
+            added.add(element);
+        }
+
+        @Override
+        public void onRemoved(AppObject element) {
+            removed.add(element);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.codecool.core.render;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameRecorderTest {
+
+    @Test
+    void playBackRecordedFrames() throws IOException {
+        String path = createTempFile();
+        FrameRecorder recorder = new FrameRecorder(path);
+        recorder.open(4, 2);
+        Canvas frame = new Canvas(4, 2);
+        frame.draw(0, 0, new char[][]{{'a', 'a', 'a'}});
+        recorder.write(frame);
+        frame.draw(1, 1, new char[][]{{'\u00e9', 'b'}});
+        recorder.write(frame);
+        recorder.write(frame);
+        recorder.close();
+
+        FramePlayer player = new FramePlayer(path);
+        HeadlessSink sink = new HeadlessSink();
+
+        assertEquals(3, player.play(sink, false));
+        assertEquals(3, sink.getFrameCount());
+        assertEquals("aaa \n \u00e9b \n", sink.getContent());
+    }
+
+    @Test
+    void encodeUnchangedFramesInFewBytes() throws IOException {
+        String path = createTempFile();
+        FrameRecorder recorder = new FrameRecorder(path);
+        recorder.open(80, 24);
+        Canvas frame = new Canvas(80, 24);
+        frame.draw(0, 0, new char[][]{{'#', '#', '#', '#', '#', '#', '#', '#'}});
+        for (int i = 0; i < 10_000; i++) {
+            recorder.write(frame);
+        }
+        recorder.close();
+
+        assertTrue(new File(path).length() < 4 * 10_000);
+        assertEquals(new File(path).length(), recorder.getBytesWritten());
+    }
+
+    @Test
+    void rejectFileWhichIsNotRecording() throws IOException {
+        Path path = Paths.get(createTempFile());
+        Files.write(path, "hello".getBytes());
+
+        assertThrows(IOException.class, () -> new FramePlayer(path.toString()));
+    }
+
+    private String createTempFile() throws IOException {
+        File file = File.createTempFile("frames", ".rec");
+        file.deleteOnExit();
+        return file.getPath();
+    }
+}
@@ -0,0 +1,122 @@
+package com.codecool.core.render;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LayerTest {
+
+    @Test
+    void keepObjectsInZIndexOrderAsTheyAreAdded() {
+        Layer<Item> layer = new Layer<>(1, false);
+        Item first = new Item(1, 0);
+        Item second = new Item(0, 1);
+        Item third = new Item(1, 2);
+        Item fourth = new Item(-1, 3);
+
+        layer.add(first);
+        layer.add(second);
+        layer.add(third);
+        layer.add(fourth);
+
+        assertOrder(layer.getRenderables(), fourth, second, first, third);
+    }
+
+    @Test
+    void reorderOnlyAfterAZIndexHasChanged() {
+        Layer<Item> layer = new Layer<>(1, false);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            Item item = new Item(i % 2, i);
+            items.add(item);
+            layer.add(item);
+        }
+        List<Item> sorted = new ArrayList<>(layer.getRenderables());
+
+        layer.sortByZIndex();
+        assertEquals(sorted, layer.getRenderables());
+
+        items.get(1).zIndex = -1;
+        layer.sortByZIndex();
+
+        assertSame(items.get(1), layer.getRenderables().get(0));
+        for (int i = 0; i < 5_000; i++) {
+            assertEquals(2 * i, layer.getRenderables().get(i + 1).order);
+        }
+        for (int i = 1; i < 5_000; i++) {
+            assertEquals(2 * i + 1, layer.getRenderables().get(5_000 + i).order);
+        }
+    }
+
+    @Test
+    void drawBucketsInZIndexOrderAndReuseThem() {
+        ZIndexBuckets<Item> buckets = new ZIndexBuckets<>();
+        List<Item> drawn = new ArrayList<>();
+        Canvas canvas = new Canvas(1, 1);
+        Item high = new Item(2, 0, drawn);
+        Item low = new Item(-3, 1, drawn);
+        Item middle = new Item(0, 2, drawn);
+        Item secondHigh = new Item(2, 3, drawn);
+
+        buckets.add(high);
+        buckets.add(low);
+        buckets.add(middle);
+        buckets.add(secondHigh);
+        buckets.draw(canvas);
+
+        assertOrder(drawn, low, middle, high, secondHigh);
+        assertEquals(3, buckets.getBucketCount());
+
+        drawn.clear();
+        buckets.add(middle);
+        buckets.draw(canvas);
+
+        assertOrder(drawn, middle);
+        assertEquals(1, buckets.getBucketCount());
+    }
+
+    @SafeVarargs
+    private static <T> void assertOrder(List<T> actual, T... expected) {
+        assertEquals(expected.length, actual.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertSame(expected[i], actual.get(i));
+        }
+    }
+
+    private static class Item implements Renderable {
+
+        private int zIndex;
+
+        private final int order;
+
+        private final List<Item> drawn;
+
+        Item(int zIndex, int order) {
+            this(zIndex, order, new ArrayList<>());
+        }
+
+        Item(int zIndex, int order, List<Item> drawn) {
+            this.zIndex = zIndex;
+            this.order = order;
+            this.drawn = drawn;
+        }
+
+        @Override
+        public RenderData getRenderData() {
+            return null;
+        }
+
+        @Override
+        public int getZIndex() {
+            return zIndex;
+        }
+
+        @Override
+        public void render(Canvas canvas) {
+            drawn.add(this);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.codecool.core.render;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpriteTest {
+
+    @Test
+    void compileOpaqueRunsAndMask() {
+        Sprite sprite = new Sprite(new char[][]{
+                {'a', 'b', ' ', 'c'},
+                {' ', ' '},
+                {'d'}
+        });
+
+        assertEquals(4, sprite.getWidth());
+        assertEquals(3, sprite.getHeight());
+        assertTrue(sprite.isOpaque(0, 0));
+        assertFalse(sprite.isOpaque(2, 0));
+        assertFalse(sprite.isOpaque(3, 1));
+        assertEquals('c', sprite.getCharacter(3, 0));
+
+        assertEquals(2, sprite.getEndRun(0) - sprite.getFirstRun(0));
+        assertEquals(0, sprite.getEndRun(1) - sprite.getFirstRun(1));
+        assertEquals(1, sprite.getEndRun(2) - sprite.getFirstRun(2));
+        assertEquals(3, sprite.getRunStart(1));
+        assertEquals(2, sprite.getRunLength(0));
+    }
+
+    @Test
+    void drawOnlyOpaqueCells() {
+        Canvas canvas = new Canvas(4, 2);
+        canvas.draw(0, 0, new char[][]{{'.', '.', '.', '.'}, {'.', '.', '.', '.'}});
+
+        canvas.drawSprite(0, 0, new Sprite(new char[][]{{'a', ' ', 'b'}, {' ', 'c'}}));
+
+        assertEquals("a.b.", row(canvas, 0));
+        assertEquals(".c..", row(canvas, 1));
+    }
+
+    @Test
+    void clipSpriteOnEveryEdge() {
+        Canvas canvas = new Canvas(3, 3);
+        Sprite sprite = new Sprite(new char[][]{{'a', 'b'}, {'c', 'd'}});
+
+        canvas.drawSprite(-1, -1, sprite);
+        canvas.drawSprite(2, 2, sprite);
+
+        assertEquals("d  ", row(canvas, 0));
+        assertEquals("   ", row(canvas, 1));
+        assertEquals("  a", row(canvas, 2));
+    }
+
+    @Test
+    void drawWithCustomTransparentCharacter() {
+        Canvas canvas = new Canvas(3, 1);
+        canvas.draw(0, 0, new char[][]{{'.', '.', '.'}});
+
+        canvas.drawSprite(0, 0, new Sprite(new char[][]{{'#', ' ', '#'}}, '#'));
+
+        assertEquals(". .", row(canvas, 0));
+        assertFalse(new Sprite(new char[][]{{'#', ' '}}, '#').isOpaque(0, 0));
+    }
+
+    private static String row(Canvas canvas, int y) {
+        return new String(canvas.getCells(), y * canvas.getWidth(), canvas.getWidth());
+    }
+}
@@ -0,0 +1,30 @@
+package com.codecool.core.render;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TerminalSessionTest {
+
+    @Test
+    void notActiveWithoutTerminal() {
+        TerminalSession session = new TerminalSession(new File("/nonexistent/tty"));
+
+        assertFalse(session.start());
+        assertFalse(session.isActive());
+        session.restore();
+        assertFalse(session.isActive());
+    }
+
+    @Test
+    void notActiveWhenInputIsNotTerminal() throws Exception {
+        File file = File.createTempFile("tty", null);
+        file.deleteOnExit();
+        TerminalSession session = new TerminalSession(file);
+
+        assertFalse(session.start());
+        assertFalse(session.isActive());
+    }
+}
@@ -3,8 +3,10 @@ package com.codecool.core.render;
 import com.codecool.core.AppObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.Mockito;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -16,20 +18,30 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 class ViewTest {
 
     private View<AppObject> view;
+    private List<AppObject> appObjects;
+    private ByteArrayOutputStream terminalOutput;
+    private TerminalWriter terminalWriter;
 
     @BeforeEach
     void init() {
-        view = new View<>(5, 5, new ArrayList<>(), new ArrayList<>(), 100);
+        terminalOutput = new ByteArrayOutputStream();
+        terminalWriter = new TerminalWriter(terminalOutput);
+        appObjects = new ArrayList<>();
+        view = new View<>(5, 5, appObjects, new ArrayList<>(), 0, new TerminalSink(RenderMode.DIFF, terminalWriter, null));
+        terminalOutput.reset();
     }
 
     private String drawOnCanvasAndGetCanvasContent(int xPos, int yPos, char[][] symbol) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
-        RenderData renderDataMock = new RenderData(xPos, yPos, symbol);
-        AppObject objectMock = Mockito.mock(AppObject.class);
-        Mockito.when(objectMock.getRenderData()).thenReturn(renderDataMock);
+        AppObject object = new AppObject(xPos, yPos, symbol, null) {
+        };
+
+        return drawOnCanvasAndGetCanvasContent(object);
+    }
 
+    private String drawOnCanvasAndGetCanvasContent(AppObject object) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
         Method drawOnCanvas = View.class.getDeclaredMethod("drawOnCanvas", List.class);
         drawOnCanvas.setAccessible(true);
-        drawOnCanvas.invoke(view, Arrays.asList(objectMock));
+        drawOnCanvas.invoke(view, Arrays.asList(object));
 
 
         Method getCanvasContent = View.class.getDeclaredMethod("getCanvasContent", null);
@@ -276,4 +288,323 @@ class ViewTest {
         assertEquals(expected, canvasContent);
     }
 
-}
\ No newline at end of file
+    @Test
+    void renderPartsOfTheObjectOffScreenOnNegativeXAxis2X2RSL() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        String expected =
+                ">    \r\n" +
+                ".    \r\n" +
+                "     \r\n" +
+                "     \r\n" +
+                "     \r\n";
+
+        int xPos = -1;
+        int yPos = 0;
+        char[][] symbol = new char[][]{
+                {'x', '>'},
+                {'v', '.'}
+        };
+
+
+        String canvasContent = drawOnCanvasAndGetCanvasContent(xPos, yPos, symbol);
+        assertEquals(expected, canvasContent);
+    }
+
+    @Test
+    void renderPartsOfTheObjectOffScreenOnNegativeYAxis2X2RSL() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        String expected =
+                "  v. \r\n" +
+                "     \r\n" +
+                "     \r\n" +
+                "     \r\n" +
+                "     \r\n";
+
+        int xPos = 2;
+        int yPos = -1;
+        char[][] symbol = new char[][]{
+                {'x', '>'},
+                {'v', '.'}
+        };
+
+
+        String canvasContent = drawOnCanvasAndGetCanvasContent(xPos, yPos, symbol);
+        assertEquals(expected, canvasContent);
+    }
+
+    @Test
+    void renderObjectLargerThanTheScreen() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        String expected =
+                "bcdef\r\n" +
+                "bcdef\r\n" +
+                "bcdef\r\n" +
+                "bcdef\r\n" +
+                "bcdef\r\n";
+
+        char[] row = {'a', 'b', 'c', 'd', 'e', 'f', 'g'};
+        char[][] symbol = new char[][]{row, row, row, row, row, row, row};
+
+
+        String canvasContent = drawOnCanvasAndGetCanvasContent(-1, -1, symbol);
+        assertEquals(expected, canvasContent);
+    }
+
+    @Test
+    void renderObjectByItsRenderData() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        String expected =
+                "     \r\n" +
+                "  x  \r\n" +
+                "     \r\n" +
+                "     \r\n" +
+                "     \r\n";
+
+        AppObject object = new AppObject(0, 0, null, null) {
+            @Override
+            public RenderData getRenderData() {
+                return new RenderData(2, 1, new char[][]{{'x'}});
+            }
+        };
+
+
+        String canvasContent = drawOnCanvasAndGetCanvasContent(object);
+        assertEquals(expected, canvasContent);
+    }
+
+    // Diff render tests
+    private String renderAndGetCanvasDiff(int xPos, int yPos, char[][] symbol) {
+        appObjects.clear();
+        appObjects.add(new AppObject(xPos, yPos, symbol, null) {
+        });
+        view.render();
+
+        String canvasDiff = terminalOutput.toString();
+        terminalOutput.reset();
+        return canvasDiff;
+    }
+
+    @Test
+    void renderWholeCanvasAtFirstDiff() {
+        String expected =
+                "\033[1;1Hx    " +
+                "\033[2;1H     " +
+                "\033[3;1H     " +
+                "\033[4;1H     " +
+                "\033[5;1H     ";
+
+        String canvasDiff = renderAndGetCanvasDiff(0, 0, new char[][]{{'x'}});
+        assertEquals(expected, canvasDiff);
+    }
+
+    @Test
+    void renderNothingWhenCanvasIsUnchanged() {
+        renderAndGetCanvasDiff(2, 2, new char[][]{{'x'}});
+
+        String canvasDiff = renderAndGetCanvasDiff(2, 2, new char[][]{{'x'}});
+        assertEquals("", canvasDiff);
+    }
+
+    @Test
+    void renderOnlyChangedCells() {
+        renderAndGetCanvasDiff(0, 1, new char[][]{{'x'}});
+
+        String canvasDiff = renderAndGetCanvasDiff(0, 3, new char[][]{{'x'}});
+        assertEquals("\033[2;1H \033[4;1Hx", canvasDiff);
+    }
+
+    @Test
+    void renderCloseChangesInOneRun() {
+        renderAndGetCanvasDiff(0, 0, new char[][]{{'x'}});
+
+        String canvasDiff = renderAndGetCanvasDiff(3, 0, new char[][]{{'x'}});
+        assertEquals("\033[1;1H   x", canvasDiff);
+    }
+
+    // Dirty tracking tests
+    private String getCanvasContent(View<AppObject> view) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        Method getCanvasContent = View.class.getDeclaredMethod("getCanvasContent");
+        getCanvasContent.setAccessible(true);
+        return (String) getCanvasContent.invoke(view);
+    }
+
+    @Test
+    void repaintMovedAndRemovedObjects() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        String expected =
+                "     \r\n" +
+                "     \r\n" +
+                "   ab\r\n" +
+                "     \r\n" +
+                "     \r\n";
+
+        List<AppObject> appObjects = new ArrayList<>();
+        View<AppObject> dirtyView = new View<>(5, 5, appObjects, new ArrayList<>(), 0, new TerminalSink(RenderMode.DIFF, terminalWriter, null));
+        dirtyView.setDirtyTracking(true);
+        MovingObject moving = new MovingObject(0, 0, new char[][]{{'a', 'b'}});
+        AppObject removed = new AppObject(1, 4, new char[][]{{'x'}}, null) {
+        };
+        appObjects.add(moving);
+        appObjects.add(removed);
+        dirtyView.render();
+
+        moving.moveTo(3, 2);
+        appObjects.remove(removed);
+        dirtyView.render();
+
+        assertEquals(expected, getCanvasContent(dirtyView));
+    }
+
+    @Test
+    void repaintObjectMarkedDirty() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        String expected =
+                " y   \r\n" +
+                "     \r\n" +
+                "     \r\n" +
+                "     \r\n" +
+                "     \r\n";
+
+        List<AppObject> appObjects = new ArrayList<>();
+        View<AppObject> dirtyView = new View<>(5, 5, appObjects, new ArrayList<>(), 0, new TerminalSink(RenderMode.DIFF, terminalWriter, null));
+        dirtyView.setDirtyTracking(true);
+        char[][] symbols = new char[][]{{'x'}};
+        AppObject appObject = new AppObject(1, 0, symbols, null) {
+        };
+        appObjects.add(appObject);
+        dirtyView.render();
+
+        symbols[0][0] = 'y';
+        appObject.markDirty();
+        dirtyView.render();
+
+        assertEquals(expected, getCanvasContent(dirtyView));
+    }
+
+    @Test
+    void renderPipelinedFrames() {
+        view.setPipelined(true);
+        appObjects.add(new AppObject(1, 1, new char[][]{{'x'}}, null) {
+        });
+        view.render();
+        view.setPipelined(false);
+
+        assertEquals(
+                "\033[1;1H     " +
+                "\033[2;1H x   " +
+                "\033[3;1H     " +
+                "\033[4;1H     " +
+                "\033[5;1H     ",
+                terminalOutput.toString());
+    }
+
+    @Test
+    void renderToHeadlessSink() {
+        HeadlessSink sink = new HeadlessSink();
+        View<AppObject> headlessView = new View<>(3, 3, appObjects, new ArrayList<>(), 0, sink);
+        appObjects.add(new AppObject(2, 1, new char[][]{{'x'}}, null) {
+        });
+        headlessView.render();
+        headlessView.stop();
+
+        assertEquals("   \n  x\n   \n", sink.getContent());
+        assertEquals('x', sink.getCanvas().getCharacter(2, 1));
+        assertEquals(1, sink.getFrameCount());
+        assertEquals("", terminalOutput.toString());
+    }
+
+    @Test
+    void renderToStreamSink() {
+        ByteArrayOutputStream streamOutput = new ByteArrayOutputStream();
+        View<AppObject> streamView = new View<>(1, 3, appObjects, new ArrayList<>(), 0,
+                new StreamSink(streamOutput, RenderMode.FULL));
+        appObjects.add(new AppObject(1, 0, new char[][]{{'x'}}, null) {
+        });
+        streamOutput.reset();
+        streamView.render();
+
+        assertEquals("\033[H\033[2J x \r\n", streamOutput.toString());
+    }
+
+    @Test
+    void drawAppObjectsInZIndexOrder() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        MovingObject front = new MovingObject(0, 0, new char[][]{{'f'}});
+        front.moveToFront();
+        appObjects.add(front);
+        appObjects.add(new AppObject(0, 0, new char[][]{{'b', 'b'}}, null) {
+        });
+        view.render();
+
+        assertEquals("fb   \r\n", getCanvasContent(view).substring(0, 7));
+    }
+
+    @Test
+    void drawLayersBelowAndAboveAppObjects() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        List<AppObject> appObjects = new ArrayList<>();
+        View<AppObject> layeredView = new View<>(1, 5, appObjects, new ArrayList<>(), 0, new HeadlessSink());
+        layeredView.setDirtyTracking(true);
+        Layer<AppObject> background = new Layer<>(-1, true);
+        background.add(new AppObject(0, 0, new char[][]{{'#', '#', '#', '#', '#'}}, null) {
+        });
+        Layer<AppObject> foreground = new Layer<>(1, false);
+        foreground.add(new AppObject(4, 0, new char[][]{{'@'}}, null) {
+        });
+        layeredView.addLayer(foreground);
+        layeredView.addLayer(background);
+        MovingObject moving = new MovingObject(1, 0, new char[][]{{'x'}});
+        appObjects.add(moving);
+        layeredView.render();
+        assertEquals("#x##@\r\n", getCanvasContent(layeredView));
+
+        moving.moveTo(2, 0);
+        layeredView.render();
+        assertEquals("##x#@\r\n", getCanvasContent(layeredView));
+    }
+
+    @Test
+    void redrawStaticLayerOnlyWhenInvalidated() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        View<AppObject> layeredView = new View<>(1, 3, new ArrayList<>(), new ArrayList<>(), 0, new HeadlessSink());
+        char[][] wall = {{'#', '#', '#'}};
+        Layer<AppObject> background = new Layer<>(-1, true);
+        background.add(new AppObject(0, 0, wall, null) {
+        });
+        layeredView.addLayer(background);
+        layeredView.render();
+
+        wall[0][1] = '.';
+        layeredView.render();
+        assertEquals("###\r\n", getCanvasContent(layeredView));
+
+        background.invalidate();
+        layeredView.render();
+        assertEquals("#.#\r\n", getCanvasContent(layeredView));
+    }
+
+    @Test
+    void recordRenderedFrames() throws IOException {
+        File file = File.createTempFile("view", ".rec");
+        file.deleteOnExit();
+        String path = file.getPath();
+        View<AppObject> recordedView = new View<>(1, 3, appObjects, new ArrayList<>(), 0, new HeadlessSink());
+        MovingObject moving = new MovingObject(0, 0, new char[][]{{'x'}});
+        appObjects.add(moving);
+        recordedView.startRecording(path);
+        recordedView.render();
+        moving.moveTo(2, 0);
+        recordedView.render();
+        recordedView.stop();
+
+        HeadlessSink sink = new HeadlessSink();
+        assertEquals(2, new FramePlayer(path).play(sink, false));
+        assertEquals("  x\n", sink.getContent());
+    }
+
+    private static class MovingObject extends AppObject {
+
+        MovingObject(int xPos, int yPos, char[][] renderSymbols) {
+            super(xPos, yPos, renderSymbols, null);
+        }
+
+        void moveTo(int xPos, int yPos) {
+            setPosition(xPos, yPos);
+        }
+
+        void moveToFront() {
+            setZIndex(1);
+        }
+    }
+}